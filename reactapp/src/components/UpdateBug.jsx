@@ -227,7 +227,7 @@ function UpdateBug() {
                 {existingImages.map((imageUrl, index) => (
                   <div key={index} className="attachment-item">
                     <img 
-                      src={`${API_BASE_URL}/uploads/${imageUrl}`} 
+                      src={`${API_BASE_URL}/bugs/${id}/attachments/${imageUrl}`} 
                       alt={`Existing image ${index + 1}`}
                       className="existing-image"
                     />
@@ -271,7 +271,7 @@ function UpdateBug() {
                 {existingDocuments.map((documentUrl, index) => (
                   <div key={index} className="attachment-item">
                     <a 
-                      href={`${API_BASE_URL}/uploads/${documentUrl}`} 
+                      href={`${API_BASE_URL}/bugs/${id}/attachments/${documentUrl}`} 
                       target="_blank" 
                       rel="noopener noreferrer"
                       className="document-link"
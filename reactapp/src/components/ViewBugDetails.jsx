@@ -160,7 +160,7 @@ function ViewBugDetails() {
                 {bug.imageUrls.map((imageUrl, index) => (
                   <div key={index} className="image-item">
                     <img 
-                      src={`${API_BASE_URL}/uploads/${imageUrl}`} 
+                      src={`${API_BASE_URL}/bugs/${id}/attachments/${imageUrl}`} 
                       alt={`Attachment ${index + 1}`}
                       className="bug-image"
                     />
@@ -185,7 +185,7 @@ function ViewBugDetails() {
                 {bug.documentUrls.map((documentUrl, index) => (
                   <li key={index} className="document-item">
                     <a 
-                      href={`${API_BASE_URL}/uploads/${documentUrl}`} 
+                      href={`${API_BASE_URL}/bugs/${id}/attachments/${documentUrl}`} 
                       target="_blank" 
                       rel="noopener noreferrer"
                       className="document-link"
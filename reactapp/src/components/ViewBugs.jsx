@@ -24,28 +24,18 @@ function ViewBugs() {
 
   const fetchBugs = async (page = currentPage, size = pageSize) => {
     try {
-      let url;
-      if (filter === "all") {
-        url = `${API_BASE_URL}/bugs?page=${page}&size=${size}&sortBy=${sortBy}&direction=${sortDirection}`;
-      } else {
-        url = `${API_BASE_URL}/bugs?status=${filter}`;
+      let url = `${API_BASE_URL}/bugs?page=${page}&size=${size}&sortBy=${sortBy}&direction=${sortDirection}`;
+      if (filter !== "all") {
+        url += `&status=${encodeURIComponent(filter)}`;
       }
   
       const res = await fetch(url);
       if (res.ok) {
+        // Paginated response (Page object), filtered or not
         const data = await res.json();
-        
-        if (filter === "all") {
-          // Paginated response (Page object)
-          setBugs(data.content);
-          setTotalPages(data.totalPages);
-          setTotalElements(data.totalElements);
-        } else {
-          // Non-paginated response (List)
-          setBugs(data);
-          setTotalPages(1);
-          setTotalElements(data.length);
-        }
+        setBugs(data.content);
+        setTotalPages(data.totalPages);
+        setTotalElements(data.totalElements);
       } else {
         console.error("Failed to fetch bugs");
         showToast("Failed to load bugs.", "error");
@@ -201,9 +191,7 @@ function ViewBugs() {
                   <th onClick={() => handleSort("bugId")} className="sortable">
                     ID{getSortIndicator("bugId")}
                   </th>
-                  <th onClick={() => handleSort("title")} className="sortable">
-                    Title{getSortIndicator("title")}
-                  </th>
+                  <th>Title</th>
                   <th>Description</th>
                   <th onClick={() => handleSort("status")} className="sortable">
                     Status{getSortIndicator("status")}
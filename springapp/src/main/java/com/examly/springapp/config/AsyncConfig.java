@@ -0,0 +1,71 @@
+package com.examly.springapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Dedicated, bounded pools for slow work (hashing, disk I/O), so it can't take over Tomcat's request threads.
+// Queues are bounded, so a burst is refused or pushed back instead of growing without limit.
+@Configuration
+public class AsyncConfig {
+
+    // BCrypt hashing/verification for login and register
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${auth.hash-pool.size:0}") int size,
+            @Value("${auth.hash-pool.queue-capacity:64}") int queueCapacity) {
+        int threads = size > 0 ? size : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+
+    // Attachment writes. Disk-bound, so more threads than CPUs; when the queue is full the uploading
+    // request thread writes the file itself, which slows that client down instead of failing it
+    @Bean
+    public ThreadPoolTaskExecutor attachmentExecutor(
+            @Value("${attachments.io-pool.size:8}") int size,
+            @Value("${attachments.io-pool.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("attachment-io-");
+        return executor;
+    }
+
+    // Thumbnail/preview rendering. Few threads and a short queue bound the decoded images held in heap;
+    // background work that doesn't fit is dropped and rendered on first request instead
+    @Bean
+    public ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${attachments.thumbnail-pool.size:2}") int size,
+            @Value("${attachments.thumbnail-pool.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        return executor;
+    }
+
+    // Writes to /bugs/events clients. A client is queued here only while it has undelivered events
+    // (at most once), so idle streams hold no thread; the queue never needs more room than max-clients
+    @Bean
+    public ThreadPoolTaskExecutor eventStreamExecutor(
+            @Value("${bugs.events.pool-size:4}") int size,
+            @Value("${bugs.events.max-clients:5000}") int maxClients) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(maxClients);
+        executor.setThreadNamePrefix("bug-events-");
+        return executor;
+    }
+}
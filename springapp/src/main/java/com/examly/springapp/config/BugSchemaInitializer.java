@@ -0,0 +1,126 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.model.CodedEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Data fix-ups that ddl-auto=update cannot do on its own. Runs once Hibernate has updated the schema
+// and before the app takes traffic; every step is idempotent.
+@Component
+@DependsOn("entityManagerFactory")
+public class BugSchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(BugSchemaInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BugSchemaInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        seedBugIdSequence();
+        backfillBugVersions();
+        createFullTextIndex();
+        convertToCodes("status", BugStatus.values());
+        convertToCodes("priority", BugPriority.values());
+    }
+
+    // Bug ids used to come from AUTO_INCREMENT. Move the pooled id table past the highest existing id
+    // so the first allocated block cannot collide with old rows.
+    private void seedBugIdSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(bug_id), 0) FROM bug", Long.class);
+        long next = maxId + 1;
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bug_id_seq", Integer.class);
+        if (rows == 0) {
+            jdbcTemplate.update("INSERT INTO bug_id_seq (next_val) VALUES (?)", next);
+        } else if (jdbcTemplate.update("UPDATE bug_id_seq SET next_val = ? WHERE next_val < ?", next, next) > 0) {
+            log.info("Moved bug_id_seq to {} past existing bug ids", next);
+        }
+    }
+
+    // status and priority used to be free-form VARCHARs ("open", "In progress", "HIGH"). ddl-auto won't
+    // change a column's type, so rewrite the values as enum codes, matched the way CodedEnum.fromValue
+    // matches, and then shrink the column to TINYINT (its index shrinks with it). Values that match
+    // nothing are cleared. A rerun after a crash between the two steps finds the codes and keeps them.
+    private void convertToCodes(String column, CodedEnum[] values) {
+        if (!isMySql()) {
+            return;
+        }
+        String type = jdbcTemplate.queryForObject(
+                "SELECT DATA_TYPE FROM information_schema.columns "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'bug' AND column_name = ?",
+                String.class, column);
+        if ("tinyint".equalsIgnoreCase(type)) {
+            return;
+        }
+
+        String toCode = toCodeExpression(column, values);
+        Integer unknown = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bug WHERE " + column + " IS NOT NULL AND (" + toCode + ") IS NULL",
+                Integer.class);
+        if (unknown > 0) {
+            log.warn("Clearing unrecognised {} on {} bugs", column, unknown);
+        }
+        int rows = jdbcTemplate.update("UPDATE bug SET " + column + " = " + toCode);
+        jdbcTemplate.execute("ALTER TABLE bug MODIFY " + column + " TINYINT NULL");
+        log.info("Converted bug.{} to TINYINT codes ({} rows)", column, rows);
+    }
+
+    // SQL mapping a legacy VARCHAR value of column to its code, or NULL when it matches nothing
+    static String toCodeExpression(String column, CodedEnum[] values) {
+        String normalized = "LOWER(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(" + column
+                + ", ' ', ''), '_', ''), '-', ''), '\\t', ''), '\\n', ''))";
+        StringBuilder toCode = new StringBuilder("CASE ").append(normalized);
+        for (CodedEnum value : values) {
+            Set<String> spellings = new LinkedHashSet<>();
+            spellings.add(CodedEnum.normalize(value.getLabel()));
+            spellings.add(CodedEnum.normalize(((Enum<?>) value).name()));
+            spellings.add(String.valueOf(value.getCode()));
+            for (String spelling : spellings) {
+                toCode.append(" WHEN '").append(spelling).append("' THEN ").append(value.getCode());
+            }
+        }
+        return toCode.append(" ELSE NULL END").toString();
+    }
+
+    private boolean isMySql() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) con ->
+                con.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(database);
+    }
+
+    // Hibernate can't declare FULLTEXT indexes, so create the one behind /bugs/search here (MySQL only)
+    private void createFullTextIndex() {
+        if (!isMySql()) {
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'bug' AND index_name = 'ft_bug_title_description'",
+                Integer.class);
+        if (existing == 0) {
+            log.info("Creating FULLTEXT index ft_bug_title_description on bug(title, description)");
+            jdbcTemplate.execute("ALTER TABLE bug ADD FULLTEXT INDEX ft_bug_title_description (title, description)");
+        }
+    }
+
+    // The version column arrived after bugs existed; Hibernate can't version rows whose version is NULL
+    private void backfillBugVersions() {
+        int rows = jdbcTemplate.update("UPDATE bug SET version = 0 WHERE version IS NULL");
+        if (rows > 0) {
+            log.info("Initialised version on {} existing bugs", rows);
+        }
+    }
+}
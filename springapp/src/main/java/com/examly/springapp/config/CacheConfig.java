@@ -0,0 +1,14 @@
+package com.examly.springapp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are configured through spring.cache.* in application.properties (Caffeine by default);
+// spring.cache.type=none turns caching off without code changes.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Bug by id, filled by BugService.getBugById and evicted after every committed change to that bug
+    public static final String BUGS = "bugs";
+}
@@ -18,8 +18,9 @@ public class GlobalCorsConfig {
         config.setAllowedOrigins(Arrays.asList(
             "https://8081-decfdcefcbbdabaefbaffffbedebcbbdfdfdbabeba.premiumproject.examly.io" // frontend
         ));
-        config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(Arrays.asList("*"));
+        config.setExposedHeaders(Arrays.asList("ETag", "X-Possible-Duplicates"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
@@ -3,9 +3,17 @@ package com.examly.springapp.config;
 
 import com.examly.springapp.service.CustomUserDetailsService;
 import com.examly.springapp.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,16 +23,28 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    // SHA-256 of the token -> principal. A token is verified and its user loaded once; the entry
+    // then expires together with the token, so the hot path does no parsing and no user query.
+    private final Cache<String, ValidatedToken> validatedTokens;
 
-    public JwtFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                     @Value("${auth.token-cache.max-size:10000}") long maxCachedTokens) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.validatedTokens = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
     }
 
     @Override
@@ -32,20 +52,22 @@ public class JwtFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         
         final String authorizationHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
-        }
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            String key = sha256(jwt);
+            ValidatedToken token = validatedTokens.getIfPresent(key);
+            if (token == null) {
+                token = validate(jwt);
+                if (token != null) {
+                    validatedTokens.put(key, token);
+                }
+            }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            if (token != null) {
+                UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(token.principal, null, token.principal.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -53,4 +75,58 @@ public class JwtFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Parses the token once; null when it is malformed, forged, expired, never expires or its user is gone
+    private ValidatedToken validate(String jwt) {
+        try {
+            Claims claims = jwtUtil.extractAllClaims(jwt);
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            // Cache the principal without its password hash
+            UserDetails principal = new User(userDetails.getUsername(), "", userDetails.getAuthorities());
+            return new ValidatedToken(principal, claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class ValidatedToken {
+
+        private final UserDetails principal;
+        private final long expiresAtMillis;
+
+        private ValidatedToken(UserDetails principal, long expiresAtMillis) {
+            this.principal = principal;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, ValidatedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, ValidatedToken token, long currentTime) {
+            return Math.max(0, token.expiresAtMillis - System.currentTimeMillis()) * 1_000_000;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ValidatedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ValidatedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
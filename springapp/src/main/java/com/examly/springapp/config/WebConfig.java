@@ -1,15 +1,50 @@
 package com.examly.springapp.config;
 
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.service.FileStorageService;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    private final FileStorageService fileStorageService;
+
+    public WebConfig(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
     
+    // Path variables and query parameters accept the same spellings as JSON ("In Progress", "in_progress", "2")
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, BugStatus.class, BugStatus::fromValue);
+        registry.addConverter(String.class, BugPriority.class, BugPriority::fromValue);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Kept for old links; the app now downloads through GET /bugs/{id}/attachments/{filename}.
+        // Resolved through the storage backend, so files moved into shards are still found.
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations("file:uploads/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic())
+                .resourceChain(false)
+                .addResolver(new PathResourceResolver() {
+                    @Override
+                    protected Resource getResource(String resourcePath, Resource location) {
+                        return fileStorageService.localPath(resourcePath)
+                                .<Resource>map(FileSystemResource::new)
+                                .orElse(null);
+                    }
+                });
     }
-}
\ No newline at end of file
+}
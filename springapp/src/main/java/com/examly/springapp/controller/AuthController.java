@@ -3,10 +3,16 @@ package com.examly.springapp.controller;
 
 import com.examly.springapp.model.User;
 import com.examly.springapp.service.AuthService;
+import com.examly.springapp.service.LoginThrottledException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -19,28 +25,42 @@ public class AuthController {
         this.authService = authService;
     }
 
+    // Both endpoints complete asynchronously, so the Tomcat thread is released while the password is hashed
     @PostMapping("/register")
-    public ResponseEntity<Map<String, String>> register(@RequestBody User user) {
-        Map<String, String> response = authService.registerUser(user);
-        
-        if (response.containsKey("error")) {
-            return ResponseEntity.badRequest().body(response);
-        }
-        
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<Map<String, String>>> register(@RequestBody User user) {
+        return authService.registerUser(user)
+                .thenApply(AuthController::toResponse)
+                .exceptionally(AuthController::throttled);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> loginRequest) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestBody Map<String, String> loginRequest,
+                                                                        HttpServletRequest request) {
         String email = loginRequest.get("email");
         String password = loginRequest.get("password");
         
-        Map<String, String> response = authService.loginUser(email, password);
-        
+        return authService.loginUser(email, password, request.getRemoteAddr())
+                .thenApply(AuthController::toResponse)
+                .exceptionally(AuthController::throttled);
+    }
+
+    private static ResponseEntity<Map<String, String>> toResponse(Map<String, String> response) {
         if (response.containsKey("error")) {
             return ResponseEntity.badRequest().body(response);
         }
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // 429 for throttled attempts and a full hashing pool; anything else stays a server error
+    private static ResponseEntity<Map<String, String>> throttled(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof LoginThrottledException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER,
+                            String.valueOf(((LoginThrottledException) cause).getRetryAfterSeconds()))
+                    .body(Map.of("error", cause.getMessage()));
+        }
+        throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+    }
+}
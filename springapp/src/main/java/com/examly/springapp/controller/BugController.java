@@ -1,102 +1,307 @@
 package com.examly.springapp.controller;
 
+import com.examly.springapp.dto.BatchResult;
+import com.examly.springapp.dto.BugFilter;
+import com.examly.springapp.dto.BugSearchHit;
+import com.examly.springapp.dto.BugStats;
+import com.examly.springapp.dto.BulkDeleteRequest;
+import com.examly.springapp.dto.BulkResult;
+import com.examly.springapp.dto.BulkUpdateRequest;
+import com.examly.springapp.dto.SimilarBug;
+import com.examly.springapp.dto.StorageReport;
 import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.repository.BugSpecifications;
+import com.examly.springapp.service.AttachmentDownloadService;
+import com.examly.springapp.service.BugBatchService;
+import com.examly.springapp.service.BugEventStream;
+import com.examly.springapp.service.BugExportService;
+import com.examly.springapp.service.BugSearchService;
 import com.examly.springapp.service.BugService;
+import com.examly.springapp.service.BugSimilarityService;
+import com.examly.springapp.service.BugStatsService;
 import com.examly.springapp.service.FileStorageService;
+import com.examly.springapp.service.StorageReconciler;
+import com.examly.springapp.service.ThumbnailService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/bugs")
 public class BugController {
 
+    private static final String SUMMARY_VIEW = "summary";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    private static final String POSSIBLE_DUPLICATES = "X-Possible-Duplicates";
+
     private final BugService bugService;
     private final FileStorageService fileStorageService;
+    private final BugExportService bugExportService;
+    private final BugBatchService bugBatchService;
+    private final BugSearchService bugSearchService;
+    private final BugSimilarityService bugSimilarityService;
+    private final BugStatsService bugStatsService;
+    private final AttachmentDownloadService attachmentDownloadService;
+    private final ThumbnailService thumbnailService;
+    private final StorageReconciler storageReconciler;
+    private final BugEventStream bugEventStream;
+    // Writes to /bugs/{id} without If-Match get 428 instead of overwriting blindly
+    private final boolean requireIfMatch;
 
-    public BugController(BugService bugService, FileStorageService fileStorageService) {
+    public BugController(BugService bugService, FileStorageService fileStorageService,
+                         BugExportService bugExportService, BugBatchService bugBatchService,
+                         BugSearchService bugSearchService, BugSimilarityService bugSimilarityService,
+                         BugStatsService bugStatsService, AttachmentDownloadService attachmentDownloadService,
+                         ThumbnailService thumbnailService, StorageReconciler storageReconciler,
+                         BugEventStream bugEventStream,
+                         @Value("${bugs.require-if-match:false}") boolean requireIfMatch) {
         this.bugService = bugService;
         this.fileStorageService = fileStorageService;
+        this.bugExportService = bugExportService;
+        this.bugBatchService = bugBatchService;
+        this.bugSearchService = bugSearchService;
+        this.bugSimilarityService = bugSimilarityService;
+        this.bugStatsService = bugStatsService;
+        this.attachmentDownloadService = attachmentDownloadService;
+        this.thumbnailService = thumbnailService;
+        this.storageReconciler = storageReconciler;
+        this.bugEventStream = bugEventStream;
+        this.requireIfMatch = requireIfMatch;
     }
 
-    // ✅ Create Bug with file uploads
+    // ✅ Create Bug with file uploads; ids of likely duplicates come back in X-Possible-Duplicates
     @PostMapping()
     public ResponseEntity<Bug> createBug(
             @RequestPart("bug") Bug bug,
             @RequestPart(value = "images", required = false) List<MultipartFile> images,
             @RequestPart(value = "documents", required = false) List<MultipartFile> documents) {
         
+        List<String> stored = List.of();
+        Bug savedBug;
         try {
-            // Handle image uploads
-            if (images != null && !images.isEmpty()) {
-                List<String> imageUrls = new ArrayList<>();
-                for (MultipartFile image : images) {
-                    if (!image.isEmpty()) {
-                        String filename = fileStorageService.storeFile(image);
-                        imageUrls.add(filename);
-                    }
-                }
-                bug.setImageUrls(imageUrls);
-            }
-            
-            // Handle document uploads
-            if (documents != null && !documents.isEmpty()) {
-                List<String> documentUrls = new ArrayList<>();
-                for (MultipartFile document : documents) {
-                    if (!document.isEmpty()) {
-                        String filename = fileStorageService.storeFile(document);
-                        documentUrls.add(filename);
-                    }
-                }
-                bug.setDocumentUrls(documentUrls);
-            }
+            // Images and documents are written concurrently; storeFiles is all-or-nothing
+            List<MultipartFile> imageFiles = nonEmpty(images);
+            List<MultipartFile> uploads = new ArrayList<>(imageFiles);
+            uploads.addAll(nonEmpty(documents));
+            stored = fileStorageService.storeFiles(uploads);
+
+            // Only uploaded files hold a reference; names sent in the bug part are never trusted
+            bug.setImageUrls(new ArrayList<>(stored.subList(0, imageFiles.size())));
+            bug.setDocumentUrls(new ArrayList<>(stored.subList(imageFiles.size(), stored.size())));
             
-            Bug savedBug = bugService.addBug(bug);
-            return ResponseEntity.ok(savedBug);
+            savedBug = bugService.addBug(bug);
         } catch (Exception e) {
+            // Nothing references the new files if the insert failed
+            fileStorageService.deleteFiles(stored);
             return ResponseEntity.internalServerError().build();
         }
+
+        List<SimilarBug> duplicates = bugSimilarityService.findSimilar(
+                savedBug.getBugId(), savedBug.getTitle(), savedBug.getDescription());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!duplicates.isEmpty()) {
+            response.header(POSSIBLE_DUPLICATES, duplicates.stream()
+                    .map(d -> String.valueOf(d.getBugId()))
+                    .collect(Collectors.joining(",")));
+        }
+        return response.body(savedBug);
+    }
+
+    // ✅ Bulk create from a JSON array or NDJSON stream, committed in chunks, with per-item results
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BatchResult> createBugsBatch(
+            HttpServletRequest request,
+            @RequestParam(value = "chunkSize", required = false) Integer chunkSize) throws IOException {
+        BatchResult result = bugBatchService.ingest(request.getInputStream(), chunkSize);
+        return ResponseEntity.ok(result);
+    }
+
+    // ✅ Bulk status/priority update by ids or filter
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkResult> bulkUpdateBugs(@RequestBody BulkUpdateRequest request) {
+        try {
+            BulkResult result = bugService.bulkUpdate(request.getIds(), request.getFilter(),
+                    request.getStatus(), request.getPriority());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ✅ Bulk delete by ids or filter (attachment files cleaned up after commit)
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkResult> bulkDeleteBugs(@RequestBody BulkDeleteRequest request) {
+        try {
+            return ResponseEntity.ok(bugService.bulkDelete(request.getIds(), request.getFilter()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // ✅ Get All Bugs (for existing tests and filtered requests)
     @GetMapping()
     public ResponseEntity<?> getAllBugs(
             @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "priority", required = false) String priority,
+            @RequestParam(value = "reporter", required = false) String reporter,
+            @RequestParam(value = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(value = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(value = "hasAttachments", required = false) Boolean hasAttachments,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sortBy", defaultValue = "createdDate") String sortBy,
-            @RequestParam(value = "direction", defaultValue = "desc") String direction) {
+            @RequestParam(value = "direction", defaultValue = "desc") String direction,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+            @RequestParam(value = "view", defaultValue = "full") String view) {
         
-        // If status filter is provided, return filtered results without pagination
-        if (status != null && !status.isEmpty() && !status.equals("all")) {
-            List<Bug> filteredBugs = bugService.getBugsByStatus(status);
-            return ResponseEntity.ok(filteredBugs);
+        // Filters combine with AND; status and priority take several values ("Open,In Progress") and
+        // "all" means no filter. Filtered lists page and sort like the unfiltered one.
+        BugFilter filter = new BugFilter();
+        try {
+            filter.setStatuses(parseStatuses(status));
+            filter.setPriorities(parsePriorities(priority));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        filter.setReporter(reporter);
+        filter.setCreatedFrom(createdFrom);
+        filter.setCreatedTo(createdTo);
+        filter.setHasAttachments(hasAttachments);
+
+        // Cursor mode: "after" present (empty for the first page)
+        if (after != null) {
+            return getBugsAfter(filter, after, size, sortBy, direction, withTotal, view);
         }
         
         // Otherwise, return paginated results
-        Sort sort = direction.equalsIgnoreCase(Sort.Direction.ASC.name())
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        return listPage(filter, page, size, sortBy, direction, view);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Bug> bugsPage = bugService.getBugsPaginated(pageable);
-        return ResponseEntity.ok(bugsPage);
+    // ✅ Export all bugs (format=ndjson|csv), streamed straight to the response
+    @GetMapping("/export")
+    public void exportBugs(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                           HttpServletResponse response) throws IOException {
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bugs.csv\"");
+            bugExportService.exportCsv(response.getOutputStream());
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            response.setContentType(NDJSON);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bugs.ndjson\"");
+            bugExportService.exportNdjson(response.getOutputStream());
+        } else {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported export format: " + format);
+        }
     }
 
-    // ✅ Get Bug By ID
+    // ✅ Full-text search over title and description, ranked by relevance
+    @GetMapping("/search")
+    public ResponseEntity<Page<BugSearchHit>> searchBugs(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (query.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bugSearchService.search(query, PageRequest.of(page, size)));
+    }
+
+    // ✅ Result of the last storage reconciliation (orphaned files, references to missing files)
+    @GetMapping("/storage-report")
+    public ResponseEntity<StorageReport> getStorageReport() {
+        return storageReconciler.getLastReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // ✅ Live created/updated/deleted deltas (Server-Sent Events) instead of re-fetching pages.
+    // EventSource reconnects send Last-Event-ID and receive what they missed.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    // Keeps nginx from buffering the stream
+                    .header("X-Accel-Buffering", "no")
+                    .body(bugEventStream.subscribe(lastEventId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // ✅ Dashboard counts by status, priority, top reporters and a created-date histogram
+    @GetMapping("/stats")
+    public ResponseEntity<BugStats> getBugStats(
+            @RequestParam(value = "bucket", defaultValue = "day") String bucket,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "topReporters", defaultValue = "20") int topReporters) {
+        try {
+            return ResponseEntity.ok(bugStatsService.getStats(bucket, from, to, topReporters));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ✅ Likely duplicates of a bug, best match first
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarBug>> getSimilarBugs(@PathVariable Long id) {
+        return bugService.getBugById(id)
+                .map(bug -> ResponseEntity.ok(
+                        bugSimilarityService.findSimilar(id, bug.getTitle(), bug.getDescription())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ✅ Get Bug By ID (ETag = version; If-None-Match answered with 304)
     @GetMapping("/{id}")
-    public ResponseEntity<Bug> getBugById(@PathVariable Long id) {
+    public ResponseEntity<Bug> getBugById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // Pollers that already hold the current version get a 304 from a version-only lookup
+        if (ifNoneMatch != null) {
+            Optional<Long> version = bugService.getBugVersion(id);
+            if (version.isPresent() && ifNoneMatchHits(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version.get())).build();
+            }
+        }
+
         Optional<Bug> bug = bugService.getBugById(id);
-        return bug.map(ResponseEntity::ok)
+        return bug.map(b -> ResponseEntity.ok().eTag(etag(b.getVersion())).body(b))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -106,8 +311,13 @@ public class BugController {
             @PathVariable Long id,
             @RequestPart("bug") Bug bug,
             @RequestPart(value = "images", required = false) List<MultipartFile> images,
-            @RequestPart(value = "documents", required = false) List<MultipartFile> documents) {
+            @RequestPart(value = "documents", required = false) List<MultipartFile> documents,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
+        if (ifMatchMissing(ifMatch)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        List<String> stored = List.of();
         try {
             // Get existing bug to preserve existing attachments
             Optional<Bug> existingBugOpt = bugService.getBugById(id);
@@ -116,67 +326,106 @@ public class BugController {
             }
             
             Bug existingBug = existingBugOpt.get();
+            List<Long> expectedVersions = ifMatchVersions(ifMatch);
+            // Refuse stale writes before any upload is stored
+            if (expectedVersions != null && !expectedVersions.contains(existingBug.getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
             
-            // Handle image uploads - preserve existing and add new ones
+            // New uploads are written concurrently and appended to the existing attachments
+            List<MultipartFile> imageFiles = nonEmpty(images);
+            List<MultipartFile> uploads = new ArrayList<>(imageFiles);
+            uploads.addAll(nonEmpty(documents));
+            stored = fileStorageService.storeFiles(uploads);
+
             List<String> imageUrls = existingBug.getImageUrls() != null ? 
                     new ArrayList<>(existingBug.getImageUrls()) : new ArrayList<>();
-            
-            if (images != null && !images.isEmpty()) {
-                for (MultipartFile image : images) {
-                    if (!image.isEmpty()) {
-                        String filename = fileStorageService.storeFile(image);
-                        imageUrls.add(filename);
-                    }
-                }
-            }
+            imageUrls.addAll(stored.subList(0, imageFiles.size()));
             bug.setImageUrls(imageUrls);
             
-            // Handle document uploads - preserve existing and add new ones
             List<String> documentUrls = existingBug.getDocumentUrls() != null ? 
                     new ArrayList<>(existingBug.getDocumentUrls()) : new ArrayList<>();
-            
-            if (documents != null && !documents.isEmpty()) {
-                for (MultipartFile document : documents) {
-                    if (!document.isEmpty()) {
-                        String filename = fileStorageService.storeFile(document);
-                        documentUrls.add(filename);
-                    }
-                }
-            }
+            documentUrls.addAll(stored.subList(imageFiles.size(), stored.size()));
             bug.setDocumentUrls(documentUrls);
             
-            Bug updatedBug = bugService.updateBug(id, bug);
-            return ResponseEntity.ok(updatedBug);
+            Bug updatedBug = bugService.updateBug(id, bug, expectedVersions);
+            return ResponseEntity.ok().eTag(etag(updatedBug.getVersion())).body(updatedBug);
+        } catch (OptimisticLockingFailureException e) {
+            fileStorageService.deleteFiles(stored);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (Exception e) {
+            fileStorageService.deleteFiles(stored);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // ✅ Partial update (JSON merge patch): only the fields present in the body are changed
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Bug> patchBug(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatchMissing(ifMatch)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        try {
+            return bugService.patchBug(id, patch, ifMatchVersions(ifMatch))
+                    .map(b -> ResponseEntity.ok().eTag(etag(b.getVersion())).body(b))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
     // ✅ Delete Bug (with file cleanup)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteBug(@PathVariable Long id) {
-        Optional<Bug> bugOpt = bugService.getBugById(id);
-        if (bugOpt.isPresent()) {
-            Bug bug = bugOpt.get();
-            
-            // Delete associated files
-            if (bug.getImageUrls() != null) {
-                for (String imageUrl : bug.getImageUrls()) {
-                    fileStorageService.deleteFile(imageUrl);
-                }
-            }
-            
-            if (bug.getDocumentUrls() != null) {
-                for (String documentUrl : bug.getDocumentUrls()) {
-                    fileStorageService.deleteFile(documentUrl);
-                }
+    public ResponseEntity<Void> deleteBug(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatchMissing(ifMatch)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        try {
+            if (!bugService.deleteBug(id, ifMatchVersions(ifMatch))) {
+                return ResponseEntity.notFound().build();
             }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
-        
-        bugService.deleteBug(id);
         return ResponseEntity.noContent().build();
     }
 
+    // ✅ Download an attachment of this bug (Range requests, ETag / If-None-Match, immutable caching).
+    // size=thumb|preview serves a downscaled image, or the original (revalidated, not immutable) when no
+    // rendition can be made.
+    @GetMapping("/{id}/attachments/{filename}")
+    public void downloadAttachment(
+            @PathVariable Long id,
+            @PathVariable String filename,
+            @RequestParam(value = "size", required = false) String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<Bug> bug = bugService.getBugById(id);
+        if (bug.isEmpty() || !references(bug.get(), filename)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (size != null && !ThumbnailService.isSupportedSize(size)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Optional<String> rendition = size == null
+                ? Optional.of(filename)
+                : thumbnailService.getDerivative(filename, size);
+        if (rendition.isPresent()) {
+            attachmentDownloadService.serve(rendition.get(), request, response);
+        } else {
+            attachmentDownloadService.serveFallback(filename, request, response);
+        }
+    }
+
     // ✅ Delete specific attachment from a bug
     @DeleteMapping("/{id}/attachments/{filename}")
     public ResponseEntity<Void> deleteAttachment(
@@ -184,48 +433,172 @@ public class BugController {
             @PathVariable String filename,
             @RequestParam String type) {
         
-        Optional<Bug> bugOpt = bugService.getBugById(id);
-        if (!bugOpt.isPresent()) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        Bug bug = bugOpt.get();
-        
-        if ("image".equalsIgnoreCase(type) && bug.getImageUrls() != null) {
-            bug.getImageUrls().remove(filename);
-            fileStorageService.deleteFile(filename);
-        } else if ("document".equalsIgnoreCase(type) && bug.getDocumentUrls() != null) {
-            bug.getDocumentUrls().remove(filename);
-            fileStorageService.deleteFile(filename);
-        } else {
+        // Done in the service on a fresh row: the bug from getBugById may be a shared cached instance
+        if (!bugService.removeAttachment(id, filename, type)) {
             return ResponseEntity.notFound().build();
         }
-        
-        bugService.updateBug(id, bug);
         return ResponseEntity.noContent().build();
     }
 
     // ✅ New Endpoint: Get bugs by status (for filtering)
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Bug>> getBugsByStatus(@PathVariable String status) {
-        List<Bug> bugs = bugService.getBugsByStatus(status);
-        return ResponseEntity.ok(bugs);
+    public ResponseEntity<?> getBugsByStatus(
+            @PathVariable BugStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "full") String view) {
+
+        BugFilter filter = new BugFilter();
+        filter.setStatus(status);
+        return listPage(filter, page, size, sortBy, direction, view);
     }
 
     // ✅ Paginated endpoint (kept for backward compatibility)
     @GetMapping("/paginated")
-    public ResponseEntity<Page<Bug>> getBugsPaginated(
+    public ResponseEntity<?> getBugsPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
             @RequestParam(defaultValue = "createdDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String direction) {
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(defaultValue = "full") String view) {
+
+        if (after != null) {
+            return getBugsAfter(null, after, size, sortBy, direction, withTotal, view);
+        }
 
-        Sort sort = direction.equalsIgnoreCase(Sort.Direction.ASC.name())
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        return listPage(null, page, size, sortBy, direction, view);
+    }
+
+    // Attachments are only served through a bug that lists them
+    private static boolean references(Bug bug, String filename) {
+        return (bug.getImageUrls() != null && bug.getImageUrls().contains(filename))
+                || (bug.getDocumentUrls() != null && bug.getDocumentUrls().contains(filename));
+    }
+
+    private static List<MultipartFile> nonEmpty(List<MultipartFile> files) {
+        List<MultipartFile> result = new ArrayList<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                if (!file.isEmpty()) {
+                    result.add(file);
+                }
+            }
+        }
+        return result;
+    }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Bug> bugs = bugService.getBugsPaginated(pageable);
-        return ResponseEntity.ok(bugs);
+    // Strong ETag for a bug version
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private boolean ifMatchMissing(String ifMatch) {
+        return requireIfMatch && (ifMatch == null || ifMatch.isBlank());
+    }
+
+    // Versions listed in an If-Match header; null when there is no precondition (header absent or "*").
+    // Weak or unparseable tags never match, so a non-null empty list always fails the check.
+    private static List<Long> ifMatchVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/") || value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.valueOf(value.substring(1, value.length() - 1)));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        return versions;
+    }
+
+    // If-None-Match uses weak comparison, so W/"3" matches version 3
+    private static boolean ifNoneMatchHits(String ifNoneMatch, Long version) {
+        String current = etag(version);
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // null for no filter; unknown names throw IllegalArgumentException
+    private static Set<BugStatus> parseStatuses(String status) {
+        if (status == null || status.isBlank() || "all".equals(status)) {
+            return null;
+        }
+        Set<BugStatus> statuses = EnumSet.noneOf(BugStatus.class);
+        for (String name : status.split(",")) {
+            BugStatus parsed = BugStatus.fromValue(name);
+            if (parsed != null) {
+                statuses.add(parsed);
+            }
+        }
+        return statuses.isEmpty() ? null : statuses;
+    }
+
+    // Same rules as parseStatuses
+    private static Set<BugPriority> parsePriorities(String priority) {
+        if (priority == null || priority.isBlank() || "all".equals(priority)) {
+            return null;
+        }
+        Set<BugPriority> priorities = EnumSet.noneOf(BugPriority.class);
+        for (String name : priority.split(",")) {
+            BugPriority parsed = BugPriority.fromValue(name);
+            if (parsed != null) {
+                priorities.add(parsed);
+            }
+        }
+        return priorities.isEmpty() ? null : priorities;
+    }
+
+    // view=summary returns BugSummary rows (no description or attachments); anything else returns full bugs.
+    // Only indexed columns can be sorted on, with bugId as the tiebreaker; size is 1..MAX_PAGE_SIZE.
+    private ResponseEntity<Page<?>> listPage(BugFilter filter, int page, int size, String sortBy, String direction,
+                                             String view) {
+        Sort.Direction dir = direction.equalsIgnoreCase(Sort.Direction.ASC.name())
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        Pageable pageable;
+        try {
+            BugService.checkPageSize(size);
+            pageable = PageRequest.of(page, size, BugSpecifications.sort(sortBy, dir));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (SUMMARY_VIEW.equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(bugService.getBugSummaries(filter, pageable));
+        }
+        return ResponseEntity.ok(bugService.getBugs(filter, pageable));
+    }
+
+    // Keyset page over (sortBy, bugId); latency stays flat however deep the client scrolls
+    private ResponseEntity<?> getBugsAfter(BugFilter filter, String after, int size, String sortBy,
+                                           String direction, boolean withTotal, String view) {
+        Sort.Direction dir = direction.equalsIgnoreCase(Sort.Direction.ASC.name())
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        try {
+            if (SUMMARY_VIEW.equalsIgnoreCase(view)) {
+                return ResponseEntity.ok(bugService.getBugSummariesAfter(filter, after, sortBy, dir, size, withTotal));
+            }
+            return ResponseEntity.ok(bugService.getBugsAfter(filter, after, sortBy, dir, size, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
-}
\ No newline at end of file
+}
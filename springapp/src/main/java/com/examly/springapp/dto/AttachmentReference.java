@@ -0,0 +1,9 @@
+package com.examly.springapp.dto;
+
+// One row of bug_image_urls or bug_document_urls: a bug pointing at a stored file
+public interface AttachmentReference {
+
+    Long getBugId();
+
+    String getFilename();
+}
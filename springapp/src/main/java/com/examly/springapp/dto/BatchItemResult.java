@@ -0,0 +1,44 @@
+package com.examly.springapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Outcome of one element of a batch request, by its position in the request
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    private final int index;
+    private final Long bugId;
+    private final boolean success;
+    private final String error;
+
+    private BatchItemResult(int index, Long bugId, boolean success, String error) {
+        this.index = index;
+        this.bugId = bugId;
+        this.success = success;
+        this.error = error;
+    }
+
+    public static BatchItemResult ok(int index, Long bugId) {
+        return new BatchItemResult(index, bugId, true, null);
+    }
+
+    public static BatchItemResult failed(int index, Long bugId, String error) {
+        return new BatchItemResult(index, bugId, false, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,33 @@
+package com.examly.springapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary plus per-item outcome of a batch request
+public class BatchResult {
+
+    private int succeeded;
+    private int failed;
+    private final List<BatchItemResult> items = new ArrayList<>();
+
+    public void add(BatchItemResult item) {
+        items.add(item);
+        if (item.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,86 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+// Payload of one /bugs/events message: the list-view columns after the change, or just the id for a
+// delete. Clients patch their cached rows with it instead of re-fetching pages.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BugDelta {
+
+    private final String type;
+    private final Long bugId;
+    private final String title;
+    private final BugStatus status;
+    private final BugPriority priority;
+    private final String reporter;
+    private final LocalDate createdDate;
+    private final Integer imageCount;
+    private final Integer documentCount;
+
+    private BugDelta(String type, Long bugId, String title, BugStatus status, BugPriority priority,
+                     String reporter, LocalDate createdDate, Integer imageCount, Integer documentCount) {
+        this.type = type;
+        this.bugId = bugId;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.reporter = reporter;
+        this.createdDate = createdDate;
+        this.imageCount = imageCount;
+        this.documentCount = documentCount;
+    }
+
+    public static BugDelta of(BugChangedEvent event) {
+        String type = event.getType().name().toLowerCase(Locale.ROOT);
+        BugSnapshot after = event.getAfter();
+        if (after == null) {
+            return new BugDelta(type, event.getBugId(), null, null, null, null, null, null, null);
+        }
+        return new BugDelta(type, after.getBugId(), after.getTitle(), after.getStatus(), after.getPriority(),
+                after.getReporter(), after.getCreatedDate(), after.getImageCount(), after.getDocumentCount());
+    }
+
+    // "created", "updated" or "deleted"; also the SSE event name
+    public String getType() {
+        return type;
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public BugStatus getStatus() {
+        return status;
+    }
+
+    public BugPriority getPriority() {
+        return priority;
+    }
+
+    public String getReporter() {
+        return reporter;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public Integer getImageCount() {
+        return imageCount;
+    }
+
+    public Integer getDocumentCount() {
+        return documentCount;
+    }
+}
@@ -0,0 +1,81 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Criteria selecting a set of bugs, for list endpoints and bulk operations. Every field is optional;
+// the ones that are set must all match (see BugSpecifications.matching).
+public class BugFilter {
+
+    private Set<BugStatus> statuses;
+    private Set<BugPriority> priorities;
+    private String reporter;
+    private LocalDate createdFrom;
+    private LocalDate createdTo;
+    private Boolean hasAttachments;
+
+    public Set<BugStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(Set<BugStatus> statuses) {
+        this.statuses = statuses;
+    }
+
+    // Single-status form, as bulk request bodies used to send it ({"filter": {"status": "Open"}})
+    public void setStatus(BugStatus status) {
+        this.statuses = status == null ? null : EnumSet.of(status);
+    }
+
+    public Set<BugPriority> getPriorities() {
+        return priorities;
+    }
+
+    public void setPriorities(Set<BugPriority> priorities) {
+        this.priorities = priorities;
+    }
+
+    public String getReporter() {
+        return reporter;
+    }
+
+    public void setReporter(String reporter) {
+        this.reporter = reporter;
+    }
+
+    // Inclusive
+    public LocalDate getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDate createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    // Inclusive
+    public LocalDate getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDate createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public Boolean getHasAttachments() {
+        return hasAttachments;
+    }
+
+    public void setHasAttachments(Boolean hasAttachments) {
+        this.hasAttachments = hasAttachments;
+    }
+
+    public boolean isEmpty() {
+        return (statuses == null || statuses.isEmpty()) && (priorities == null || priorities.isEmpty())
+                && (reporter == null || reporter.isEmpty()) && createdFrom == null && createdTo == null
+                && hasAttachments == null;
+    }
+}
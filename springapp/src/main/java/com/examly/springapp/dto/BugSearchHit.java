@@ -0,0 +1,36 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
+
+// One ranked full-text match: list-view columns plus the relevance score (higher is better).
+// The native query returns status and priority as their stored codes; the defaults decode them.
+public interface BugSearchHit {
+
+    Long getBugId();
+
+    String getTitle();
+
+    @JsonIgnore
+    Integer getStatusCode();
+
+    @JsonIgnore
+    Integer getPriorityCode();
+
+    default BugStatus getStatus() {
+        return BugStatus.fromCode(getStatusCode());
+    }
+
+    default BugPriority getPriority() {
+        return BugPriority.fromCode(getPriorityCode());
+    }
+
+    String getReporter();
+
+    LocalDate getCreatedDate();
+
+    Double getScore();
+}
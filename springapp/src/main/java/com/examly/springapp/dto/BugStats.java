@@ -0,0 +1,57 @@
+package com.examly.springapp.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Dashboard counts. histogram is keyed by bucket start date (ISO), in date order.
+public class BugStats {
+
+    private final long total;
+    private final Map<String, Long> byStatus;
+    private final Map<String, Long> byPriority;
+    private final Map<String, Long> byReporter;
+    private final String bucket;
+    private final Map<String, Long> histogram;
+    private final Instant reconciledAt;
+
+    public BugStats(long total, Map<String, Long> byStatus, Map<String, Long> byPriority,
+                    Map<String, Long> byReporter, String bucket, Map<String, Long> histogram,
+                    Instant reconciledAt) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byPriority = byPriority;
+        this.byReporter = byReporter;
+        this.bucket = bucket;
+        this.histogram = histogram;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public Map<String, Long> getByReporter() {
+        return byReporter;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public Map<String, Long> getHistogram() {
+        return histogram;
+    }
+
+    // When the counters were last replaced by SQL aggregates; null until the first reconcile
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+
+import java.time.LocalDate;
+
+// List-view row: only the columns the bug list renders, no description and no attachment collections
+public class BugSummary {
+
+    private final Long bugId;
+    private final String title;
+    private final BugStatus status;
+    private final BugPriority priority;
+    private final String reporter;
+    private final LocalDate createdDate;
+
+    public BugSummary(Long bugId, String title, BugStatus status, BugPriority priority,
+                      String reporter, LocalDate createdDate) {
+        this.bugId = bugId;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.reporter = reporter;
+        this.createdDate = createdDate;
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public BugStatus getStatus() {
+        return status;
+    }
+
+    public BugPriority getPriority() {
+        return priority;
+    }
+
+    public String getReporter() {
+        return reporter;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+}
@@ -0,0 +1,26 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+// DELETE /bugs/bulk body: target bugs by ids or by filter
+public class BulkDeleteRequest {
+
+    private List<Long> ids;
+    private BugFilter filter;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public BugFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(BugFilter filter) {
+        this.filter = filter;
+    }
+}
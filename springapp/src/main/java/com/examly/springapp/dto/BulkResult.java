@@ -0,0 +1,21 @@
+package com.examly.springapp.dto;
+
+// Number of bugs a bulk operation matched and changed
+public class BulkResult {
+
+    private final int matched;
+    private final int affected;
+
+    public BulkResult(int matched, int affected) {
+        this.matched = matched;
+        this.affected = affected;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+}
@@ -0,0 +1,47 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+
+import java.util.List;
+
+// PATCH /bugs/bulk body: target bugs by ids or by filter, then set status and/or priority
+public class BulkUpdateRequest {
+
+    private List<Long> ids;
+    private BugFilter filter;
+    private BugStatus status;
+    private BugPriority priority;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public BugFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(BugFilter filter) {
+        this.filter = filter;
+    }
+
+    public BugStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BugStatus status) {
+        this.status = status;
+    }
+
+    public BugPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(BugPriority priority) {
+        this.priority = priority;
+    }
+}
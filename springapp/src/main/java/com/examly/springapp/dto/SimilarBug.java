@@ -0,0 +1,35 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.BugStatus;
+
+// A likely duplicate: estimated Jaccard similarity (0..1) of the two bugs' title + description shingles
+public class SimilarBug {
+
+    private final Long bugId;
+    private final String title;
+    private final BugStatus status;
+    private final double similarity;
+
+    public SimilarBug(Long bugId, String title, BugStatus status, double similarity) {
+        this.bugId = bugId;
+        this.title = title;
+        this.status = status;
+        this.similarity = similarity;
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public BugStatus getStatus() {
+        return status;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+}
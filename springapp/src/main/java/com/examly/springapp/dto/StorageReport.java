@@ -0,0 +1,82 @@
+package com.examly.springapp.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Outcome of the last storage reconciliation pass. danglingSamples lists the first few references to
+// files that no longer exist; danglingReferences counts all of them.
+public class StorageReport {
+
+    private final long scannedFiles;
+    private final long quarantined;
+    private final long deletedOrphans;
+    private final long deletedRenditions;
+    private final long danglingReferences;
+    private final List<DanglingReference> danglingSamples;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+
+    public StorageReport(long scannedFiles, long quarantined, long deletedOrphans, long deletedRenditions,
+                         long danglingReferences, List<DanglingReference> danglingSamples,
+                         Instant startedAt, Instant finishedAt) {
+        this.scannedFiles = scannedFiles;
+        this.quarantined = quarantined;
+        this.deletedOrphans = deletedOrphans;
+        this.deletedRenditions = deletedRenditions;
+        this.danglingReferences = danglingReferences;
+        this.danglingSamples = danglingSamples;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public long getScannedFiles() {
+        return scannedFiles;
+    }
+
+    public long getQuarantined() {
+        return quarantined;
+    }
+
+    public long getDeletedOrphans() {
+        return deletedOrphans;
+    }
+
+    public long getDeletedRenditions() {
+        return deletedRenditions;
+    }
+
+    public long getDanglingReferences() {
+        return danglingReferences;
+    }
+
+    public List<DanglingReference> getDanglingSamples() {
+        return danglingSamples;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public static class DanglingReference {
+
+        private final Long bugId;
+        private final String filename;
+
+        public DanglingReference(Long bugId, String filename) {
+            this.bugId = bugId;
+            this.filename = filename;
+        }
+
+        public Long getBugId() {
+            return bugId;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+    }
+}
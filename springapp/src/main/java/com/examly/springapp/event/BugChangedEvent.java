@@ -0,0 +1,48 @@
+package com.examly.springapp.event;
+
+// Published by every bug mutation. Consumers that keep derived state (similarity index, counters, ...)
+// should listen with @TransactionalEventListener so they only see committed changes.
+public class BugChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final BugSnapshot before;
+    private final BugSnapshot after;
+
+    private BugChangedEvent(Type type, BugSnapshot before, BugSnapshot after) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static BugChangedEvent created(BugSnapshot after) {
+        return new BugChangedEvent(Type.CREATED, null, after);
+    }
+
+    public static BugChangedEvent updated(BugSnapshot before, BugSnapshot after) {
+        return new BugChangedEvent(Type.UPDATED, before, after);
+    }
+
+    public static BugChangedEvent deleted(BugSnapshot before) {
+        return new BugChangedEvent(Type.DELETED, before, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getBugId() {
+        return after != null ? after.getBugId() : before.getBugId();
+    }
+
+    // null for CREATED
+    public BugSnapshot getBefore() {
+        return before;
+    }
+
+    // null for DELETED
+    public BugSnapshot getAfter() {
+        return after;
+    }
+}
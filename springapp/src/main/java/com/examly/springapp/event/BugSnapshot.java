@@ -0,0 +1,96 @@
+package com.examly.springapp.event;
+
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Immutable copy of a bug's scalar columns and attachment counts, taken inside the transaction that changed it.
+// Listeners run after commit, when the managed entity may already have moved on.
+public final class BugSnapshot {
+
+    private final Long bugId;
+    private final String title;
+    private final String description;
+    private final BugStatus status;
+    private final BugPriority priority;
+    private final String reporter;
+    private final LocalDate createdDate;
+    private final Integer imageCount;
+    private final Integer documentCount;
+
+    // Scalar columns only, for scans that never look at attachments; the counts stay null (unknown)
+    public BugSnapshot(Long bugId, String title, String description, BugStatus status, BugPriority priority,
+                       String reporter, LocalDate createdDate) {
+        this(bugId, title, description, status, priority, reporter, createdDate, null, null);
+    }
+
+    public BugSnapshot(Long bugId, String title, String description, BugStatus status, BugPriority priority,
+                       String reporter, LocalDate createdDate, Integer imageCount, Integer documentCount) {
+        this.bugId = bugId;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.reporter = reporter;
+        this.createdDate = createdDate;
+        this.imageCount = imageCount;
+        this.documentCount = documentCount;
+    }
+
+    public static BugSnapshot of(Bug bug) {
+        return new BugSnapshot(bug.getBugId(), bug.getTitle(), bug.getDescription(), bug.getStatus(),
+                bug.getPriority(), bug.getReporter(), bug.getCreatedDate(),
+                size(bug.getImageUrls()), size(bug.getDocumentUrls()));
+    }
+
+    // Copy with status and/or priority replaced; null keeps the current value
+    public BugSnapshot withStatusAndPriority(BugStatus newStatus, BugPriority newPriority) {
+        return new BugSnapshot(bugId, title, description,
+                newStatus != null ? newStatus : status,
+                newPriority != null ? newPriority : priority,
+                reporter, createdDate, imageCount, documentCount);
+    }
+
+    private static int size(List<String> attachments) {
+        return attachments == null ? 0 : attachments.size();
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BugStatus getStatus() {
+        return status;
+    }
+
+    public BugPriority getPriority() {
+        return priority;
+    }
+
+    public String getReporter() {
+        return reporter;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public Integer getImageCount() {
+        return imageCount;
+    }
+
+    public Integer getDocumentCount() {
+        return documentCount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.examly.springapp.event;
+
+// A new blob was written by FileStorageService (not published when an upload reuses stored content)
+public class FileStoredEvent {
+
+    private final String filename;
+
+    public FileStoredEvent(String filename) {
+        this.filename = filename;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+}
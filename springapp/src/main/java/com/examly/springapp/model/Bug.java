@@ -1,25 +1,70 @@
 package com.examly.springapp.model;
 import javax.persistence.*;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import java.time.LocalDate;
 import java.util.List;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+    // Backs keyset pages ordered by (createdDate, bugId), the default list order
+    @Index(name = "idx_bug_created_date_id", columnList = "createdDate, bugId"),
+    // Status filter combined with the default order, so filtered pages never filesort
+    @Index(name = "idx_bug_status_created_date_id", columnList = "status, createdDate, bugId"),
+    // Same for the priority and reporter filters
+    @Index(name = "idx_bug_priority_created_date_id", columnList = "priority, createdDate, bugId"),
+    @Index(name = "idx_bug_reporter_created_date_id", columnList = "reporter, createdDate, bugId")
+})
 public class Bug {
+    // Pooled ids (50 per round trip) instead of IDENTITY so Hibernate can batch INSERTs.
+    // MySQL has no sequences, so Hibernate backs this with a one-row bug_id_seq table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bug_id_seq")
+    @GenericGenerator(name = "bug_id_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "bug_id_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long bugId;
     private String title;
     private String description;
-    private String status;
-    private String priority;
+    // Small integer codes (see BugStatus/BugPriority), so the status index is one byte wide
+    @Convert(converter = CodedEnumConverter.StatusConverter.class)
+    @Column(columnDefinition = "TINYINT")
+    private BugStatus status;
+    @Convert(converter = CodedEnumConverter.PriorityConverter.class)
+    @Column(columnDefinition = "TINYINT")
+    private BugPriority priority;
     private String reporter;
     private LocalDate createdDate;
+
+    // Optimistic lock, bumped on every change (including attachment lists); also the bug's ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    // Batch-fetched: serializing a page of N bugs loads all their attachments in one IN-query per collection
+    // Table and column names pinned to Hibernate's defaults; bulk deletes address them in native SQL
+    // Indexed by file name too, so the storage reconciler can ask which stored files are referenced
     @ElementCollection
+    @CollectionTable(name = "bug_image_urls", joinColumns = @JoinColumn(name = "bug_bug_id"),
+            indexes = @Index(name = "idx_bug_image_urls_value", columnList = "image_urls"))
+    @Column(name = "image_urls")
+    @BatchSize(size = 50)
     private List<String> imageUrls;
     
     @ElementCollection
+    @CollectionTable(name = "bug_document_urls", joinColumns = @JoinColumn(name = "bug_bug_id"),
+            indexes = @Index(name = "idx_bug_document_urls_value", columnList = "document_urls"))
+    @Column(name = "document_urls")
+    @BatchSize(size = 50)
     private List<String> documentUrls;
     public Bug() {}
     public Long getBugId() {
@@ -42,16 +87,16 @@ public class Bug {
         this.description = description;
     }
 
-    public String getStatus() {
+    public BugStatus getStatus() {
         return status;
     }
-    public void setStatus(String status) {
+    public void setStatus(BugStatus status) {
         this.status = status;
     }
-    public String getPriority() {
+    public BugPriority getPriority() {
         return priority;
     }
-    public void setPriority(String priority) {
+    public void setPriority(BugPriority priority) {
         this.priority = priority;
     }
     public String getReporter() {
@@ -66,6 +111,12 @@ public class Bug {
     }
     public void setCreatedDate(LocalDate createdDate) {
         this.createdDate = createdDate;
+    }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
     }
        // New getters and setters for attachments
        public List<String> getImageUrls() {
@@ -0,0 +1,41 @@
+package com.examly.springapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+// Codes are what the bug.priority column holds and rise with severity, so sorting by priority
+// is by severity. Never renumber: add new levels with new codes.
+public enum BugPriority implements CodedEnum {
+    LOW(1, "Low"),
+    MEDIUM(2, "Medium"),
+    HIGH(3, "High"),
+    CRITICAL(4, "Critical");
+
+    private final int code;
+    private final String label;
+
+    BugPriority(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    @Override
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    @JsonCreator
+    public static BugPriority fromValue(String value) {
+        return CodedEnum.fromValue(BugPriority.class, value);
+    }
+
+    public static BugPriority fromCode(Integer code) {
+        return CodedEnum.fromCode(BugPriority.class, code);
+    }
+}
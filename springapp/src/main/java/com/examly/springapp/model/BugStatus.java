@@ -0,0 +1,41 @@
+package com.examly.springapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+// Codes are what the bug.status column holds and are ordered by workflow, so sorting by status
+// follows it. Never renumber: add new states with new codes.
+public enum BugStatus implements CodedEnum {
+    OPEN(1, "Open"),
+    IN_PROGRESS(2, "In Progress"),
+    RESOLVED(3, "Resolved"),
+    CLOSED(4, "Closed");
+
+    private final int code;
+    private final String label;
+
+    BugStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    @Override
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    @JsonCreator
+    public static BugStatus fromValue(String value) {
+        return CodedEnum.fromValue(BugStatus.class, value);
+    }
+
+    public static BugStatus fromCode(Integer code) {
+        return CodedEnum.fromCode(BugStatus.class, code);
+    }
+}
@@ -0,0 +1,44 @@
+package com.examly.springapp.model;
+
+import java.util.Locale;
+
+// Enums stored as a small integer code (see CodedEnumConverter) and shown to clients by label
+public interface CodedEnum {
+
+    int getCode();
+
+    String getLabel();
+
+    static <E extends Enum<E> & CodedEnum> E fromCode(Class<E> type, Integer code) {
+        if (code == null) {
+            return null;
+        }
+        for (E value : type.getEnumConstants()) {
+            if (value.getCode() == code) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code: " + code);
+    }
+
+    // Accepts the label, the constant name or the code, ignoring case, spaces, '_' and '-'
+    // ("In Progress", "IN_PROGRESS", "in-progress", "2"). Blank means null.
+    static <E extends Enum<E> & CodedEnum> E fromValue(Class<E> type, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String wanted = normalize(value);
+        for (E constant : type.getEnumConstants()) {
+            if (normalize(constant.getLabel()).equals(wanted) || normalize(constant.name()).equals(wanted)
+                    || String.valueOf(constant.getCode()).equals(wanted)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + ": " + value);
+    }
+
+    // The form fromValue compares in (also used to match legacy column values in SQL)
+    static String normalize(String value) {
+        return value.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+}
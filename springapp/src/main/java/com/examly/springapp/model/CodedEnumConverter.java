@@ -0,0 +1,39 @@
+package com.examly.springapp.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+// Stores a CodedEnum as its code (a TINYINT column) instead of a VARCHAR name: one byte per row and
+// per index entry, and filters compare integers
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Integer> {
+
+    private final Class<E> type;
+
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(E value) {
+        return value == null ? null : value.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Integer code) {
+        return CodedEnum.fromCode(type, code);
+    }
+
+    @Converter
+    public static class StatusConverter extends CodedEnumConverter<BugStatus> {
+        public StatusConverter() {
+            super(BugStatus.class);
+        }
+    }
+
+    @Converter
+    public static class PriorityConverter extends CodedEnumConverter<BugPriority> {
+        public PriorityConverter() {
+            super(BugPriority.class);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.examly.springapp.model;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+// One pending notification line for one recipient. Written in the transaction that changed the bug, so
+// a notification exists exactly when its change committed; deleted once it has gone out in a digest.
+@Entity
+@Table(name = "notification_outbox",
+        indexes = @Index(name = "idx_notification_outbox_due", columnList = "failed, nextAttemptAt"))
+public class NotificationOutbox {
+
+    // Pooled like Bug ids, so a bulk update's rows go out in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_id_seq")
+    @GenericGenerator(name = "notification_id_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "notification_id_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
+    private Long id;
+
+    @Column(nullable = false, length = 254)
+    private String recipient;
+
+    private Long bugId;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    private Instant createdAt;
+
+    private int attempts;
+
+    private Instant nextAttemptAt;
+
+    // Gave up after notifications.max-attempts; kept for inspection
+    private boolean failed;
+
+    public NotificationOutbox() {}
+
+    public NotificationOutbox(String recipient, Long bugId, String message, Instant createdAt) {
+        this.recipient = recipient;
+        this.bugId = bugId;
+        this.message = message;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public Long getBugId() { return bugId; }
+    public void setBugId(Long bugId) { this.bugId = bugId; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public boolean isFailed() { return failed; }
+    public void setFailed(boolean failed) { this.failed = failed; }
+}
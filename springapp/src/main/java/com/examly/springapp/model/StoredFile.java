@@ -0,0 +1,35 @@
+package com.examly.springapp.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// One content-addressed blob in uploads/ ("<sha256><ext>") and how many attachment entries point at it
+@Entity
+@Table(name = "stored_file")
+public class StoredFile {
+
+    @Id
+    @Column(length = 80)
+    private String filename;
+
+    @Column(nullable = false)
+    private long refCount;
+
+    private long size;
+
+    private LocalDateTime createdAt;
+
+    public StoredFile() {}
+
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+
+    public long getRefCount() { return refCount; }
+    public void setRefCount(long refCount) { this.refCount = refCount; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,19 +1,126 @@
 package com.examly.springapp.repository;
 
+import com.examly.springapp.dto.AttachmentReference;
+import com.examly.springapp.dto.BugSearchHit;
+import com.examly.springapp.dto.BugSummary;
+import com.examly.springapp.event.BugSnapshot;
 import com.examly.springapp.model.Bug;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+// Filtered lists go through JpaSpecificationExecutor with BugSpecifications (full rows) or the
+// Specification-taking methods of BugRepositoryCustom (summaries, keyset pages, ids)
 @Repository
-public interface BugRepository extends JpaRepository<Bug, Long> {
+public interface BugRepository extends JpaRepository<Bug, Long>, JpaSpecificationExecutor<Bug>, BugRepositoryCustom {
     
-    // ✅ Find bugs by status
-    List<Bug> findByStatus(String status);
+    // ✅ Ranked full-text search (MySQL natural-language mode over the title/description FULLTEXT index)
+    @Query(value = "SELECT b.bug_id AS bugId, b.title AS title, b.status AS statusCode, b.priority AS priorityCode, "
+            + "b.reporter AS reporter, b.created_date AS createdDate, "
+            + "MATCH(b.title, b.description) AGAINST (:q IN NATURAL LANGUAGE MODE) AS score "
+            + "FROM bug b WHERE MATCH(b.title, b.description) AGAINST (:q IN NATURAL LANGUAGE MODE) "
+            + "ORDER BY score DESC, b.bug_id DESC",
+            countQuery = "SELECT COUNT(*) FROM bug b "
+            + "WHERE MATCH(b.title, b.description) AGAINST (:q IN NATURAL LANGUAGE MODE)",
+            nativeQuery = true)
+    Page<BugSearchHit> searchFullText(@Param("q") String query, Pageable pageable);
+
+    // ✅ Version only, for conditional GETs that can be answered without loading the bug
+    @Query("select b.version from Bug b where b.bugId = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // ✅ Bulk operations: resolve targets to ids (BugRepositoryCustom.findIds), then work on them in
+    // set-based statements
+    @Query("select i from Bug b join b.imageUrls i where b.bugId in :ids")
+    List<String> findImageUrlsByBugIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select d from Bug b join b.documentUrls d where b.bugId in :ids")
+    List<String> findDocumentUrlsByBugIds(@Param("ids") Collection<Long> ids);
+
+    // Which of these stored file names any bug still points at (one chunk of the storage walk)
+    @Query(value = "SELECT image_urls FROM bug_image_urls WHERE image_urls IN (:names) "
+            + "UNION SELECT document_urls FROM bug_document_urls WHERE document_urls IN (:names)",
+            nativeQuery = true)
+    List<String> findReferencedFilenames(@Param("names") Collection<String> names);
+
+    // Every attachment reference of these bugs, images and documents alike
+    @Query(value = "SELECT bug_bug_id AS bugId, image_urls AS filename FROM bug_image_urls WHERE bug_bug_id IN (:ids) "
+            + "UNION ALL SELECT bug_bug_id, document_urls FROM bug_document_urls WHERE bug_bug_id IN (:ids)",
+            nativeQuery = true)
+    List<AttachmentReference> findAttachmentReferencesByBugIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset walk over all bug ids
+    @Query("select b.bugId from Bug b where b.bugId > :afterId order by b.bugId")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // JPQL bulk deletes skip element collections, so their rows are removed first
+    @Modifying
+    @Query(value = "DELETE FROM bug_image_urls WHERE bug_bug_id IN (:ids)", nativeQuery = true)
+    int deleteImageUrlsByBugIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM bug_document_urls WHERE bug_bug_id IN (:ids)", nativeQuery = true)
+    int deleteDocumentUrlsByBugIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Bug b where b.bugId in :ids")
+    int deleteByBugIds(@Param("ids") Collection<Long> ids);
+
+    // ✅ Aggregates for reconciling the in-memory stats counters: [value, count] rows
+    @Query("select b.status, count(b) from Bug b group by b.status")
+    List<Object[]> countGroupByStatus();
+
+    @Query("select b.priority, count(b) from Bug b group by b.priority")
+    List<Object[]> countGroupByPriority();
+
+    @Query("select b.reporter, count(b) from Bug b group by b.reporter")
+    List<Object[]> countGroupByReporter();
+
+    @Query("select b.createdDate, count(b) from Bug b group by b.createdDate")
+    List<Object[]> countGroupByCreatedDate();
+
+    // ✅ Scalar snapshots for change events of set-based operations, which never load the entities
+    @Query("select new com.examly.springapp.event.BugSnapshot(b.bugId, b.title, b.description, b.status, "
+            + "b.priority, b.reporter, b.createdDate, size(b.imageUrls), size(b.documentUrls)) "
+            + "from Bug b where b.bugId in :ids")
+    List<BugSnapshot> findSnapshotsByBugIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.examly.springapp.dto.BugSummary(b.bugId, b.title, b.status, b.priority, b.reporter, "
+            + "b.createdDate) from Bug b where b.bugId in :ids")
+    List<BugSummary> findSummariesByBugIds(@Param("ids") Collection<Long> ids);
+
+    // ✅ Forward-only scan of the whole table for exports; rows arrive from the server in fetch-size chunks
+    // (MySQL needs useCursorFetch=true on the JDBC URL to honour the fetch size). Callers must close the stream.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select b from Bug b order by b.bugId")
+    Stream<Bug> streamAll();
+
+    // ✅ Same scan as scalar snapshots, for rebuilding in-memory indexes without managing entities
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.examly.springapp.event.BugSnapshot(b.bugId, b.title, b.description, b.status, "
+            + "b.priority, b.reporter, b.createdDate) from Bug b order by b.bugId")
+    Stream<BugSnapshot> streamSnapshots();
     
     // ✅ Pagination is already provided by JpaRepository
     // The findAll(Pageable pageable) method is available by default
+
+    // ✅ Keyset pagination (findPageAfter) lives in BugRepositoryImpl
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.dto.BugSummary;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.util.BugCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+// spec is optional everywhere (null = all bugs); see BugSpecifications
+public interface BugRepositoryCustom {
+
+    // ✅ Keyset (seek) page: rows strictly after the cursor in (sortBy, bugId) order, no OFFSET and no COUNT
+    List<Bug> findPageAfter(Specification<Bug> spec, String sortBy, Sort.Direction direction, BugCursor after, int limit);
+
+    // ✅ Same seek, projected to list-view columns only
+    List<BugSummary> findSummaryPageAfter(Specification<Bug> spec, String sortBy, Sort.Direction direction,
+                                          BugCursor after, int limit);
+
+    // ✅ Offset page projected to list-view columns: narrow rows, no entity hydration, no attachment loads
+    Page<BugSummary> findSummaries(Specification<Bug> spec, Pageable pageable);
+
+    // ✅ Ids only, for bulk operations over a filter: the next limit ids above afterId (null = from the
+    // start), in id order, so a large match is walked in bounded slices
+    List<Long> findIds(Specification<Bug> spec, Long afterId, int limit);
+
+    // ✅ One UPDATE setting whichever of status/priority is non-null on the given bugs
+    int bulkUpdateStatusAndPriority(Collection<Long> ids, BugStatus status, BugPriority priority);
+}
@@ -0,0 +1,223 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.dto.BugSummary;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.util.BugCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BugRepositoryImpl implements BugRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Bug> findPageAfter(Specification<Bug> spec, String sortBy, Sort.Direction direction,
+                                   BugCursor after, int limit) {
+        CriteriaQuery<Bug> query = entityManager.getCriteriaBuilder().createQuery(Bug.class);
+        Root<Bug> bug = query.from(Bug.class);
+        return seek(query, bug, spec, sortBy, direction, after, limit);
+    }
+
+    @Override
+    public List<BugSummary> findSummaryPageAfter(Specification<Bug> spec, String sortBy, Sort.Direction direction,
+                                                 BugCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BugSummary> query = cb.createQuery(BugSummary.class);
+        Root<Bug> bug = query.from(Bug.class);
+        query.select(summaryOf(cb, bug));
+        return seek(query, bug, spec, sortBy, direction, after, limit);
+    }
+
+    @Override
+    public Page<BugSummary> findSummaries(Specification<Bug> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BugSummary> query = cb.createQuery(BugSummary.class);
+        Root<Bug> bug = query.from(Bug.class);
+        query.select(summaryOf(cb, bug));
+        Predicate where = toPredicate(spec, bug, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), bug, cb));
+        TypedQuery<BugSummary> page = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            page.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(page.getResultList(), pageable, () -> countMatching(spec));
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Bug> spec, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Bug> bug = query.from(Bug.class);
+        Path<Long> id = bug.get("bugId");
+        query.select(id);
+        List<Predicate> where = new ArrayList<>();
+        Predicate filter = toPredicate(spec, bug, query, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        if (afterId != null) {
+            where.add(cb.greaterThan(id, afterId));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public int bulkUpdateStatusAndPriority(Collection<Long> ids, BugStatus status, BugPriority priority) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Bug> update = cb.createCriteriaUpdate(Bug.class);
+        Root<Bug> bug = update.from(Bug.class);
+        if (status != null) {
+            update.set(bug.<BugStatus>get("status"), status);
+        }
+        if (priority != null) {
+            update.set(bug.<BugPriority>get("priority"), priority);
+        }
+        // Bulk updates bypass Hibernate's versioning, so bump it here to invalidate clients' ETags
+        Path<Long> version = bug.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.where(bug.get("bugId").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private <T> List<T> seek(CriteriaQuery<T> query, Root<Bug> bug, Specification<Bug> spec, String sortBy,
+                             Sort.Direction direction, BugCursor after, int limit) {
+        BugSpecifications.checkSortable(sortBy);
+        Class<?> sortType = sortAttributeType(sortBy);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Path<Long> id = bug.get("bugId");
+        boolean asc = direction.isAscending();
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate filter = toPredicate(spec, bug, query, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        if (after != null) {
+            where.add(seekPredicate(cb, bug, sortBy, sortType, asc, after));
+        }
+        query.where(where.toArray(new Predicate[0]));
+
+        if ("bugId".equals(sortBy)) {
+            query.orderBy(asc ? cb.asc(id) : cb.desc(id));
+        } else {
+            Path<?> sortPath = bug.get(sortBy);
+            query.orderBy(asc ? cb.asc(sortPath) : cb.desc(sortPath), asc ? cb.asc(id) : cb.desc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private long countMatching(Specification<Bug> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Bug> bug = query.from(Bug.class);
+        query.select(cb.count(bug));
+        Predicate where = toPredicate(spec, bug, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate toPredicate(Specification<Bug> spec, Root<Bug> bug, CriteriaQuery<?> query,
+                                         CriteriaBuilder cb) {
+        return spec == null ? null : spec.toPredicate(bug, query, cb);
+    }
+
+    private static CompoundSelection<BugSummary> summaryOf(CriteriaBuilder cb, Root<Bug> bug) {
+        return cb.construct(BugSummary.class, bug.get("bugId"), bug.get("title"), bug.get("status"),
+                bug.get("priority"), bug.get("reporter"), bug.get("createdDate"));
+    }
+
+    // Row-value comparison (sortBy, bugId) > (v, id) spelled out so MySQL can range-scan the composite index.
+    // MySQL sorts NULLs first ascending and last descending, so a null sort value is handled explicitly.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(CriteriaBuilder cb, Root<Bug> bug, String sortBy, Class<?> sortType,
+                                    boolean asc, BugCursor after) {
+        Path<Long> id = bug.get("bugId");
+        Predicate idAfter = asc ? cb.greaterThan(id, after.getLastId()) : cb.lessThan(id, after.getLastId());
+
+        if ("bugId".equals(sortBy)) {
+            return idAfter;
+        }
+
+        Expression<Comparable> sortPath = bug.get(sortBy);
+        if (after.getLastValue() == null) {
+            Predicate nullTail = cb.and(cb.isNull(sortPath), idAfter);
+            return asc ? cb.or(nullTail, cb.isNotNull(sortPath)) : nullTail;
+        }
+
+        Comparable value = convert(after.getLastValue(), sortType);
+        Predicate valueAfter = asc ? cb.greaterThan(sortPath, value) : cb.lessThan(sortPath, value);
+        Predicate tie = cb.and(cb.equal(sortPath, value), idAfter);
+        return asc ? cb.or(valueAfter, tie) : cb.or(valueAfter, tie, cb.isNull(sortPath));
+    }
+
+    private Class<?> sortAttributeType(String sortBy) {
+        try {
+            SingularAttribute<? super Bug, ?> attribute =
+                    entityManager.getMetamodel().entity(Bug.class).getSingularAttribute(sortBy);
+            if (!Comparable.class.isAssignableFrom(attribute.getJavaType())) {
+                throw new IllegalArgumentException("Cannot sort by " + sortBy);
+            }
+            return attribute.getJavaType();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort field: " + sortBy, e);
+        }
+    }
+
+    // A cursor that decodes but carries a value of the wrong type is as invalid as one that doesn't decode
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparable convert(String raw, Class<?> type) {
+        try {
+            if (type == LocalDate.class) {
+                return LocalDate.parse(raw);
+            }
+            if (type == Long.class) {
+                return Long.valueOf(raw);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(raw);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, raw);
+            }
+            return raw;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor value: " + raw, e);
+        }
+    }
+}
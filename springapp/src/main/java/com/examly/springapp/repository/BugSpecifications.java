@@ -0,0 +1,101 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.dto.BugFilter;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// Predicates for BugRepository's JpaSpecificationExecutor and the keyset queries in BugRepositoryImpl.
+// Each leading filter column has a (column, createdDate, bugId) index on Bug, so an equality filter
+// plus the default order is one index range with no filesort.
+public final class BugSpecifications {
+
+    // Columns a list may be sorted by: each is the bug id or leads/follows an index ending in bugId.
+    // Anything else (title, description) would sort the whole filtered set on every page.
+    public static final List<String> SORTABLE = List.of("createdDate", "bugId", "status", "priority", "reporter");
+
+    private BugSpecifications() {
+    }
+
+    // null when the filter is empty, which Spring Data and BugRepositoryImpl read as "all bugs"
+    public static Specification<Bug> matching(BugFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        return Specification.where(hasStatusIn(filter.getStatuses()))
+                .and(hasPriorityIn(filter.getPriorities()))
+                .and(reportedBy(filter.getReporter()))
+                .and(createdBetween(filter.getCreatedFrom(), filter.getCreatedTo()))
+                .and(hasAttachments(filter.getHasAttachments()));
+    }
+
+    public static Specification<Bug> hasStatusIn(Collection<BugStatus> statuses) {
+        return in("status", statuses);
+    }
+
+    public static Specification<Bug> hasPriorityIn(Collection<BugPriority> priorities) {
+        return in("priority", priorities);
+    }
+
+    public static Specification<Bug> reportedBy(String reporter) {
+        if (reporter == null || reporter.isEmpty()) {
+            return null;
+        }
+        return (bug, query, cb) -> cb.equal(bug.get("reporter"), reporter);
+    }
+
+    // Either bound may be null (open-ended); both inclusive
+    public static Specification<Bug> createdBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (bug, query, cb) -> {
+            if (from == null) {
+                return cb.lessThanOrEqualTo(bug.get("createdDate"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(bug.get("createdDate"), from);
+            }
+            return cb.between(bug.get("createdDate"), from, to);
+        };
+    }
+
+    // EXISTS subqueries on the attachment tables, answered from their bug_bug_id index
+    public static Specification<Bug> hasAttachments(Boolean hasAttachments) {
+        if (hasAttachments == null) {
+            return null;
+        }
+        return (bug, query, cb) -> hasAttachments
+                ? cb.or(cb.isNotEmpty(bug.get("imageUrls")), cb.isNotEmpty(bug.get("documentUrls")))
+                : cb.and(cb.isEmpty(bug.get("imageUrls")), cb.isEmpty(bug.get("documentUrls")));
+    }
+
+    // ✅ Sort for offset pages: whitelisted column, then bugId so equal values page deterministically
+    public static Sort sort(String sortBy, Sort.Direction direction) {
+        checkSortable(sortBy);
+        Sort sort = Sort.by(direction, sortBy);
+        return "bugId".equals(sortBy) ? sort : sort.and(Sort.by(direction, "bugId"));
+    }
+
+    public static void checkSortable(String sortBy) {
+        if (!SORTABLE.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortBy + "; use one of " + SORTABLE);
+        }
+    }
+
+    // Equality for one value keeps the composite index usable for the order; IN for several
+    private static Specification<Bug> in(String attribute, Collection<?> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return (bug, query, cb) -> values.size() == 1
+                ? cb.equal(bug.get(attribute), values.iterator().next())
+                : bug.get(attribute).in(values);
+    }
+}
@@ -0,0 +1,43 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Rows are inserted inside bug transactions; everything else runs on the dispatcher thread, one short
+// transaction per statement
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Oldest first, served by idx_notification_outbox_due
+    @Query("select n from NotificationOutbox n where n.failed = false and n.nextAttemptAt <= :now order by n.id")
+    List<NotificationOutbox> findDue(@Param("now") Instant now, Pageable pageable);
+
+    // When the earliest row still waiting out its backoff falls due; null when none is
+    @Query("select min(n.nextAttemptAt) from NotificationOutbox n where n.failed = false and n.nextAttemptAt > :now")
+    Instant findNextAttemptAfter(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from NotificationOutbox n where n.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update NotificationOutbox n set n.attempts = :attempts, n.nextAttemptAt = :next where n.id in :ids")
+    int scheduleRetry(@Param("ids") Collection<Long> ids, @Param("attempts") int attempts, @Param("next") Instant next);
+
+    @Transactional
+    @Modifying
+    @Query("update NotificationOutbox n set n.attempts = :attempts, n.failed = true where n.id in :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("attempts") int attempts);
+}
@@ -0,0 +1,42 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Reference counts change in their own short transactions: FileStorageService calls them from
+// after-commit callbacks, where joining the finished outer transaction would never commit.
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    // Single-statement upsert, so concurrent first uploads of the same content can't both insert
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO stored_file (filename, ref_count, size, created_at) VALUES (:filename, 1, :size, NOW()) "
+            + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int addReference(@Param("filename") String filename, @Param("size") long size);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update StoredFile f set f.refCount = f.refCount - 1 where f.filename = :filename")
+    int removeReference(@Param("filename") String filename);
+
+    @Query("select f.refCount from StoredFile f where f.filename = :filename")
+    Long findRefCount(@Param("filename") String filename);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("delete from StoredFile f where f.filename = :filename and f.refCount <= 0")
+    int deleteIfUnreferenced(@Param("filename") String filename);
+
+    // For files the reconciler found unreferenced by any bug, whatever their count says
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("delete from StoredFile f where f.filename = :filename")
+    int deleteByFilename(@Param("filename") String filename);
+}
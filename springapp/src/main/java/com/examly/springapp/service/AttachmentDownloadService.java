@@ -0,0 +1,191 @@
+package com.examly.springapp.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Serves stored files with ETags, immutable caching and single byte ranges. The body goes out
+// through Tomcat's sendfile when the connector offers it (the poller thread streams the file with
+// zero-copy and the worker thread returns at once), otherwise through FileChannel.transferTo. Backends
+// without local files (S3) get a redirect to a presigned URL; the store handles ranges and ETags itself.
+// Text-like types are left to server.compression instead: Tomcat won't gzip a response with a strong
+// ETag, so they get a weak one and are always sent whole (a gzipped body can't honour byte ranges).
+@Service
+public class AttachmentDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+    // Stored files never change under a name (new content gets a new name), so clients may keep them
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    // A stand-in for a rendition that doesn't exist yet: revalidated on each use, so the real one takes over
+    private static final String REVALIDATE = "no-cache";
+    // Sent through the response stream so server.compression can gzip them; sendfile bypasses compression.
+    // Keep in step with server.compression.mime-types.
+    private static final Set<String> COMPRESSIBLE = Set.of(
+            "text/plain", "text/csv", "text/html", "text/xml", "text/markdown",
+            "application/json", "application/xml", "image/svg+xml");
+
+    private final FileStorageService fileStorageService;
+
+    public AttachmentDownloadService(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    public void serve(String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(filename, IMMUTABLE, request, response);
+    }
+
+    // The original served in place of a rendition that couldn't be produced
+    public void serveFallback(String filename, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(filename, REVALIDATE, request, response);
+    }
+
+    private void serve(String filename, String cacheControl, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        Optional<Path> local = fileStorageService.localPath(filename);
+        if (local.isPresent()) {
+            serve(local.get(), cacheControl, request, response);
+            return;
+        }
+        Optional<URI> remote = fileStorageService.exists(filename)
+                ? fileStorageService.downloadUrl(filename) : Optional.empty();
+        if (remote.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // The link expires, so the redirect itself must not be cached
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.sendRedirect(remote.get().toString());
+    }
+
+    private void serve(Path file, String cacheControl, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = Files.size(file);
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        boolean compressible = COMPRESSIBLE.contains(contentType.getType() + "/" + contentType.getSubtype());
+        String etag = compressible ? "W/" + etag(file, length) : etag(file, length);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, compressible ? "none" : "bytes");
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(contentType.toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Only images render inline; anything else (html, svg, pdf, ...) is downloaded
+        boolean image = "image".equals(contentType.getType()) && !"svg+xml".equals(contentType.getSubtype());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, image ? "inline" : "attachment");
+
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && !compressible && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multi-range requests get the whole file, which RFC 7233 allows
+            if (ranges.size() == 1) {
+                HttpRange requested = ranges.get(0);
+                if (length == 0 || requested.getRangeStart(length) >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = requested.getRangeStart(length);
+                end = requested.getRangeEnd(length) + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+
+        if (!"HEAD".equals(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                && !compressible) {
+            response.setContentLengthLong(end - start);
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        if (!compressible) {
+            response.setContentLengthLong(end - start);
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    // Content-addressed names are the hash of the bytes already; older files use size + mtime
+    private static String etag(Path file, long length) throws IOException {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot >= 0 ? name.substring(0, dot) : name;
+        if (CONTENT_HASH.matcher(base).matches()) {
+            return "\"" + base + "\"";
+        }
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+    }
+
+    // Weak comparison, as If-None-Match calls for
+    private static boolean etagMatches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(opaque) || tag.equals("W/" + opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Range with a stale validator means "send the whole thing"; dates are not tracked, so only
+    // an exact strong ETag keeps the range
+    private static boolean ifRangeMatches(String header, String etag) {
+        return header == null || header.trim().equals(etag);
+    }
+}
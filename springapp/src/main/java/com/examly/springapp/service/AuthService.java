@@ -4,15 +4,28 @@ package com.examly.springapp.service;
 import com.examly.springapp.model.User;
 import com.examly.springapp.repository.UserRepository;
 import com.examly.springapp.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
+// BCrypt is deliberately slow, so hashing runs on the bounded passwordHashExecutor: a login burst
+// queues there (or is refused with LoginThrottledException) instead of holding Tomcat threads.
 @Service
 public class AuthService {
 
@@ -20,54 +33,103 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
+    private final ThreadPoolTaskExecutor passwordHashExecutor;
+    private final LoginThrottle loginThrottle;
+    private final MeterRegistry meterRegistry;
 
     public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
                       JwtUtil jwtUtil, AuthenticationManager authenticationManager,
-                      CustomUserDetailsService userDetailsService) {
+                      @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor, LoginThrottle loginThrottle,
+                      MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.loginThrottle = loginThrottle;
+        this.meterRegistry = meterRegistry;
     }
 
-    public Map<String, String> registerUser(User user) {
-        Map<String, String> response = new HashMap<>();
-        
-        if (userRepository.existsByEmail(user.getEmail())) {
-            response.put("error", "Email already exists");
+    public CompletableFuture<Map<String, String>> registerUser(User user) {
+        return onHashPool(() -> {
+            Map<String, String> response = new HashMap<>();
+
+            if (userRepository.existsByEmail(user.getEmail())) {
+                response.put("error", "Email already exists");
+                return response;
+            }
+
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            userRepository.save(user);
+
+            UserDetails userDetails = new org.springframework.security.core.userdetails.User(
+                    user.getEmail(), "", Collections.emptyList());
+            final String jwt = jwtUtil.generateToken(userDetails);
+
+            response.put("token", jwt);
+            response.put("message", "User registered successfully");
             return response;
-        }
+        });
+    }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
+    // Latency (including time queued for the hash pool) is recorded in the auth.login timer, by outcome
+    public CompletableFuture<Map<String, String>> loginUser(String email, String password, String clientIp) {
+        Timer.Sample sample = Timer.start(meterRegistry);
 
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        final String jwt = jwtUtil.generateToken(userDetails);
+        long retryAfter = loginThrottle.acquire(email, clientIp);
+        if (retryAfter > 0) {
+            stop(sample, "throttled");
+            return CompletableFuture.failedFuture(
+                    new LoginThrottledException("Too many login attempts", retryAfter));
+        }
 
-        response.put("token", jwt);
-        response.put("message", "User registered successfully");
-        return response;
+        return onHashPool(() -> authenticate(email, password))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        stop(sample, cause instanceof LoginThrottledException ? "rejected" : "error");
+                    } else {
+                        stop(sample, response.containsKey("error") ? "failure" : "success");
+                    }
+                });
     }
 
-    public Map<String, String> loginUser(String email, String password) {
+    private Map<String, String> authenticate(String email, String password) {
         Map<String, String> response = new HashMap<>();
-        
+
         try {
-            authenticationManager.authenticate(
+            // authenticate() already loads the user; its principal is all the token needs
+            Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, password)
             );
             
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            final String jwt = jwtUtil.generateToken(userDetails);
+            final String jwt = jwtUtil.generateToken((UserDetails) authentication.getPrincipal());
+            loginThrottle.onSuccess(email);
 
             response.put("token", jwt);
             response.put("message", "Login successful");
-        } catch (Exception e) {
+        } catch (AuthenticationException e) {
+            loginThrottle.onFailure(email);
             response.put("error", "Invalid email or password");
         }
         
         return response;
     }
-}
\ No newline at end of file
+
+    private CompletableFuture<Map<String, String>> onHashPool(Supplier<Map<String, String>> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, passwordHashExecutor);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.failedFuture(new LoginThrottledException("Authentication is busy", 1));
+        }
+    }
+
+    private void stop(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("auth.login")
+                .description("Login latency")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,159 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BatchItemResult;
+import com.examly.springapp.dto.BatchResult;
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.repository.BugRepository;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class BugBatchService {
+
+    private final BugRepository bugRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader bugReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultChunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BugBatchService(BugRepository bugRepository, PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                           @Value("${bugs.batch.chunk-size:500}") int defaultChunkSize) {
+        this.bugRepository = bugRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bugReader = objectMapper.readerFor(Bug.class);
+        this.eventPublisher = eventPublisher;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    // ✅ Create bugs from a JSON array or an NDJSON stream, committing every chunkSize bugs.
+    // The body is parsed incrementally, so only one chunk is held in memory at a time.
+    public BatchResult ingest(InputStream body, Integer chunkSize) throws IOException {
+        int size = chunkSize != null && chunkSize > 0 ? chunkSize : defaultChunkSize;
+        BatchResult result = new BatchResult();
+        List<Bug> chunk = new ArrayList<>(size);
+        List<Integer> indexes = new ArrayList<>(size);
+
+        // readValues iterates the elements of a top-level array, or whitespace-separated values for NDJSON
+        try (MappingIterator<Bug> items = bugReader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                Bug bug;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    bug = items.nextValue();
+                } catch (JsonMappingException e) {
+                    // Well-formed JSON that does not bind to a Bug: skip just this item
+                    result.add(BatchItemResult.failed(index++, null, e.getOriginalMessage()));
+                    continue;
+                } catch (IOException e) {
+                    // Malformed JSON cannot be resynchronised: keep what was read so far and stop
+                    saveChunk(chunk, indexes, result);
+                    result.add(BatchItemResult.failed(index, null, "Malformed JSON: " + e.getMessage()));
+                    return result;
+                }
+
+                if (bug == null) {
+                    result.add(BatchItemResult.failed(index++, null, "Empty item"));
+                    continue;
+                }
+                // Names would hold no stored_file reference, so deleting the bug would release someone else's
+                if (!isEmpty(bug.getImageUrls()) || !isEmpty(bug.getDocumentUrls())) {
+                    result.add(BatchItemResult.failed(index++, null,
+                            "imageUrls and documentUrls cannot be set in a batch; upload with PUT /bugs/{id}"));
+                    continue;
+                }
+                bug.setBugId(null);
+                chunk.add(bug);
+                indexes.add(index++);
+
+                if (chunk.size() == size) {
+                    saveChunk(chunk, indexes, result);
+                    chunk = new ArrayList<>(size);
+                    indexes = new ArrayList<>(size);
+                }
+            }
+        }
+        saveChunk(chunk, indexes, result);
+        return result;
+    }
+
+    // One transaction and one JDBC batch per chunk. If the chunk fails, retry its bugs one by one
+    // so a single bad row doesn't fail its neighbours, and report exactly which ones failed.
+    private void saveChunk(List<Bug> chunk, List<Integer> indexes, BatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            persist(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                result.add(BatchItemResult.ok(indexes.get(i), chunk.get(i).getBugId()));
+            }
+        } catch (RuntimeException chunkFailure) {
+            for (int i = 0; i < chunk.size(); i++) {
+                Bug bug = chunk.get(i);
+                resetForRetry(bug);
+                try {
+                    persist(List.of(bug));
+                    result.add(BatchItemResult.ok(indexes.get(i), bug.getBugId()));
+                } catch (RuntimeException e) {
+                    result.add(BatchItemResult.failed(indexes.get(i), null, rootMessage(e)));
+                }
+            }
+        }
+    }
+
+    private void persist(List<Bug> bugs) {
+        transactionTemplate.executeWithoutResult(status -> {
+            bugRepository.saveAll(bugs);
+            // Delivered to transactional listeners only if this chunk commits
+            for (Bug bug : bugs) {
+                eventPublisher.publishEvent(BugChangedEvent.created(BugSnapshot.of(bug)));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    // Undo what the failed persist left on the entity. With an id or a version set, save() would take
+    // it for a detached row and merge a copy, leaving this instance (and its reported id) without an id.
+    private static void resetForRetry(Bug bug) {
+        bug.setBugId(null);
+        bug.setVersion(null);
+        bug.setImageUrls(bug.getImageUrls() == null ? null : new ArrayList<>(bug.getImageUrls()));
+        bug.setDocumentUrls(bug.getDocumentUrls() == null ? null : new ArrayList<>(bug.getDocumentUrls()));
+    }
+
+    private static boolean isEmpty(List<String> names) {
+        return names == null || names.isEmpty();
+    }
+
+    private String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
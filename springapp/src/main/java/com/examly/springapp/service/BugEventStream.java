@@ -0,0 +1,275 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BugDelta;
+import com.examly.springapp.event.BugChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Committed bug changes pushed to GET /bugs/events subscribers as Server-Sent Events.
+// Each change is serialized once, kept in a ring buffer of the last bugs.events.replay-size messages and
+// offered to every client's bounded queue; a small pool writes queued messages out. An idle stream is
+// just a parked async request, no thread. A client whose queue overflows is dropped rather than waited
+// for; its EventSource reconnects with Last-Event-ID and replays what it missed from the ring. When
+// that's no longer there (or the id is from before a restart), the client gets a "reset" event and
+// re-fetches its list once.
+@Service
+public class BugEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(BugEventStream.class);
+
+    // Ids look like "<start>-<seq>", so ids issued before a restart are recognized as unresumable
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMs;
+    private final long reconnectMs;
+    private final int clientBuffer;
+    private final int maxClients;
+    private final Frame[] ring;
+    // Last sequence number handed out; guarded by ring along with the ring itself
+    private long lastSeq;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    public BugEventStream(ObjectMapper objectMapper,
+                          @Qualifier("eventStreamExecutor") ThreadPoolTaskExecutor executor,
+                          @Value("${bugs.events.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${bugs.events.reconnect-ms:3000}") long reconnectMs,
+                          @Value("${bugs.events.replay-size:1000}") int replaySize,
+                          @Value("${bugs.events.client-buffer:256}") int clientBuffer,
+                          @Value("${bugs.events.max-clients:5000}") int maxClients) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.ring = new Frame[Math.max(1, replaySize)];
+        this.clientBuffer = Math.max(2, clientBuffer);
+        this.maxClients = maxClients;
+    }
+
+    // ✅ New stream. lastEventId is the Last-Event-ID header of a reconnect (null on first connect).
+    // Throws IllegalStateException when max-clients streams are already open.
+    public SseEmitter subscribe(String lastEventId) {
+        if (clients.size() >= maxClients) {
+            throw new IllegalStateException("Too many open event streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Client client = new Client(emitter, clientBuffer);
+        emitter.onCompletion(() -> remove(client));
+        emitter.onTimeout(() -> remove(client));
+        emitter.onError(error -> remove(client));
+
+        // Replay and registration under one lock, so no change falls between them
+        synchronized (ring) {
+            client.queue.offer(Frame.hello(reconnectMs));
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<Frame> missed = missedSince(lastEventId.trim());
+                if (missed == null || missed.size() >= clientBuffer) {
+                    client.queue.offer(Frame.reset(idOf(lastSeq)));
+                } else {
+                    missed.forEach(client.queue::offer);
+                }
+            }
+            clients.add(client);
+        }
+        schedule(client);
+        return emitter;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBugChanged(BugChangedEvent event) {
+        BugDelta delta = BugDelta.of(event);
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize change of bug {}: {}", event.getBugId(), e.getMessage());
+            return;
+        }
+        List<Client> ready = new ArrayList<>();
+        synchronized (ring) {
+            lastSeq++;
+            Frame frame = Frame.change(idOf(lastSeq), delta.getType(), data);
+            ring[(int) (lastSeq % ring.length)] = frame;
+            for (Client client : clients) {
+                if (client.queue.offer(frame)) {
+                    ready.add(client);
+                } else {
+                    drop(client);
+                }
+            }
+        }
+        ready.forEach(this::schedule);
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away without a FIN
+    @Scheduled(fixedRateString = "${bugs.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Client client : clients) {
+            if (client.queue.offer(Frame.HEARTBEAT)) {
+                schedule(client);
+            } else {
+                drop(client);
+            }
+        }
+    }
+
+    // Frames after lastEventId, oldest first; null when they can't all be replayed
+    private List<Frame> missedSince(String lastEventId) {
+        long seq;
+        int dash = lastEventId.indexOf('-');
+        try {
+            if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+                return null;
+            }
+            seq = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (seq > lastSeq || seq < lastSeq - ring.length) {
+            return null;
+        }
+        List<Frame> missed = new ArrayList<>((int) (lastSeq - seq));
+        for (long s = seq + 1; s <= lastSeq; s++) {
+            missed.add(ring[(int) (s % ring.length)]);
+        }
+        return missed;
+    }
+
+    private String idOf(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    // At most one drain per client is queued or running at a time
+    private void schedule(Client client) {
+        if (!client.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(client));
+        } catch (TaskRejectedException e) {
+            // Pool backed up: the next change or heartbeat tries again
+            client.draining.set(false);
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            Frame frame;
+            while (!client.closed && (frame = client.queue.poll()) != null) {
+                client.emitter.send(frame.toEvent());
+            }
+            if (client.closed) {
+                client.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Gone (broken pipe) or already completed
+            remove(client);
+        } finally {
+            client.draining.set(false);
+        }
+        if (!client.closed && !client.queue.isEmpty()) {
+            schedule(client);
+        }
+    }
+
+    // Slow consumer: forget it now, close the stream from the pool (completing here could wait on a
+    // blocked write). It resumes from the ring when it reconnects.
+    private void drop(Client client) {
+        remove(client);
+        schedule(client);
+    }
+
+    private void remove(Client client) {
+        client.closed = true;
+        clients.remove(client);
+    }
+
+    private static final class Client {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Frame> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Client(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    // One pre-serialized SSE message, shared by every client it goes to
+    private static final class Frame {
+        private static final Frame HEARTBEAT = new Frame(null, null, null, "ping", null);
+
+        private final String id;
+        private final String name;
+        private final String data;
+        private final String comment;
+        private final Long reconnectMs;
+
+        private Frame(String id, String name, String data, String comment, Long reconnectMs) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.comment = comment;
+            this.reconnectMs = reconnectMs;
+        }
+
+        private static Frame change(String id, String name, String data) {
+            return new Frame(id, name, data, null, null);
+        }
+
+        // Sent first so the response (and EventSource.onopen) goes out before any change happens
+        private static Frame hello(long reconnectMs) {
+            return new Frame(null, null, null, "connected", reconnectMs);
+        }
+
+        // Missed changes are gone; the client should re-fetch, then continue from id
+        private static Frame reset(String id) {
+            return new Frame(id, "reset", "{}", null, null);
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (comment != null) {
+                event.comment(comment);
+            }
+            if (reconnectMs != null) {
+                event.reconnectTime(reconnectMs);
+            }
+            if (id != null) {
+                event.id(id);
+            }
+            if (name != null) {
+                event.name(name);
+            }
+            if (data != null) {
+                event.data(data);
+            }
+            return event;
+        }
+    }
+}
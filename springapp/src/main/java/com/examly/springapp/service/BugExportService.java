@@ -0,0 +1,109 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.CodedEnum;
+import com.examly.springapp.repository.BugRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class BugExportService {
+
+    private static final String[] COLUMNS =
+            {"bugId", "title", "description", "status", "priority", "reporter", "createdDate"};
+
+    private final BugRepository bugRepository;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BugExportService(BugRepository bugRepository) {
+        this.bugRepository = bugRepository;
+    }
+
+    // ✅ Export every bug as NDJSON, one object per line, streamed row by row
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        try (Stream<Bug> bugs = bugRepository.streamAll()) {
+            Iterator<Bug> it = bugs.iterator();
+            while (it.hasNext()) {
+                Bug bug = it.next();
+                json.writeStartObject();
+                json.writeObjectField("bugId", bug.getBugId());
+                json.writeStringField("title", bug.getTitle());
+                json.writeStringField("description", bug.getDescription());
+                json.writeStringField("status", label(bug.getStatus()));
+                json.writeStringField("priority", label(bug.getPriority()));
+                json.writeStringField("reporter", bug.getReporter());
+                json.writeStringField("createdDate",
+                        bug.getCreatedDate() == null ? null : bug.getCreatedDate().toString());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                // Keep the persistence context empty so memory stays flat for any table size
+                entityManager.detach(bug);
+            }
+        }
+        json.flush();
+    }
+
+    // ✅ Export every bug as RFC 4180 CSV with a header row, streamed row by row
+    @Transactional(readOnly = true)
+    public void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        try (Stream<Bug> bugs = bugRepository.streamAll()) {
+            Iterator<Bug> it = bugs.iterator();
+            while (it.hasNext()) {
+                Bug bug = it.next();
+                writer.write(String.valueOf(bug.getBugId()));
+                writeCsvField(writer, bug.getTitle());
+                writeCsvField(writer, bug.getDescription());
+                writeCsvField(writer, label(bug.getStatus()));
+                writeCsvField(writer, label(bug.getPriority()));
+                writeCsvField(writer, bug.getReporter());
+                writeCsvField(writer, bug.getCreatedDate() == null ? null : bug.getCreatedDate().toString());
+                writer.write("\r\n");
+                entityManager.detach(bug);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Exports carry the same labels as the JSON API, not the stored codes
+    private static String label(CodedEnum value) {
+        return value == null ? null : value.getLabel();
+    }
+}
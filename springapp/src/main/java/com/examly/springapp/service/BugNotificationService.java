@@ -0,0 +1,296 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.model.CodedEnum;
+import com.examly.springapp.model.NotificationOutbox;
+import com.examly.springapp.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// E-mail digests of bug changes (new bugs and status changes), kept off the request path.
+// Each change writes its notification lines into notification_outbox inside the bug's own transaction;
+// after commit the rows go onto a bounded in-memory queue. Once per window the dispatcher drains the
+// queue and sends one mail per recipient covering everything that happened to them in that window.
+// The outbox is the durable copy: rows that didn't fit the queue, failed sends waiting out their
+// backoff, and rows left behind by a restart are read back from it. Delivery is at-least-once.
+// Inactive unless a JavaMailSender is configured (spring.mail.host).
+@Service
+public class BugNotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BugNotificationService.class);
+
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    // Lines listed in one digest; the rest are counted
+    private static final int MAX_DIGEST_LINES = 200;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final Set<String> recipients;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final BlockingQueue<NotificationOutbox> queue;
+    // Ids on the queue or being sent, so a sweep of the outbox doesn't pick them up twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    // Read the outbox on the next run: at startup, after the queue overflowed, or when a retry falls due
+    private volatile boolean sweepNeeded = true;
+    private volatile Instant nextRetryAt;
+
+    public BugNotificationService(NotificationOutboxRepository outboxRepository,
+                                  ObjectProvider<JavaMailSender> mailSender,
+                                  @Value("${notifications.enabled:true}") boolean enabled,
+                                  @Value("${notifications.from:bugs@localhost}") String from,
+                                  @Value("${notifications.recipients:}") String recipients,
+                                  @Value("${notifications.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${notifications.batch-size:500}") int batchSize,
+                                  @Value("${notifications.max-attempts:8}") int maxAttempts,
+                                  @Value("${notifications.retry-base-ms:60000}") long retryBaseMs,
+                                  @Value("${notifications.retry-max-ms:3600000}") long retryMaxMs) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = enabled ? mailSender.getIfAvailable() : null;
+        this.from = from;
+        this.recipients = Arrays.stream(recipients.split(","))
+                .map(String::trim)
+                .filter(recipient -> !recipient.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (enabled && this.mailSender == null) {
+            log.info("No mail server configured (spring.mail.host); bug notifications are off");
+        }
+    }
+
+    // Synchronous on purpose: the rows must be part of the transaction that publishes the event
+    @EventListener
+    public void onBugChanged(BugChangedEvent event) {
+        if (mailSender == null) {
+            return;
+        }
+        String message = describe(event);
+        if (message == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<NotificationOutbox> rows = new ArrayList<>();
+        for (String recipient : recipientsFor(event)) {
+            rows.add(new NotificationOutbox(recipient, event.getBugId(), message, now));
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        outboxRepository.saveAll(rows);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInTransaction().addAll(rows);
+        } else {
+            enqueue(rows);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${notifications.window-ms:60000}", fixedDelayString = "${notifications.window-ms:60000}")
+    public void dispatch() {
+        if (mailSender == null) {
+            return;
+        }
+        List<NotificationOutbox> batch = new ArrayList<>();
+        queue.drainTo(batch);
+
+        Instant now = Instant.now();
+        Instant retryAt = nextRetryAt;
+        if (sweepNeeded || (retryAt != null && !retryAt.isAfter(now))) {
+            sweepNeeded = false;
+            nextRetryAt = null;
+            sweep(now, batch);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<NotificationOutbox>> byRecipient = new LinkedHashMap<>();
+        for (NotificationOutbox row : batch) {
+            byRecipient.computeIfAbsent(row.getRecipient().toLowerCase(Locale.ROOT), r -> new ArrayList<>()).add(row);
+        }
+        try {
+            for (List<NotificationOutbox> rows : byRecipient.values()) {
+                try {
+                    sendDigest(rows);
+                } catch (RuntimeException e) {
+                    // The outbox itself couldn't be updated; the rows are still there, so read them back
+                    sweepNeeded = true;
+                    log.warn("Could not record the outcome of {} notifications for {}: {}",
+                            rows.size(), rows.get(0).getRecipient(), e.getMessage());
+                }
+            }
+        } finally {
+            batch.forEach(row -> inFlight.remove(row.getId()));
+        }
+    }
+
+    private void sweep(Instant now, List<NotificationOutbox> batch) {
+        List<NotificationOutbox> due = outboxRepository.findDue(now, PageRequest.of(0, batchSize));
+        for (NotificationOutbox row : due) {
+            if (inFlight.add(row.getId())) {
+                batch.add(row);
+            }
+        }
+        if (due.size() == batchSize) {
+            // More waiting; take the next slice on the next run
+            sweepNeeded = true;
+        } else {
+            // Rows still backing off from earlier failures
+            retryAt(outboxRepository.findNextAttemptAfter(now));
+        }
+    }
+
+    private void sendDigest(List<NotificationOutbox> rows) {
+        List<Long> ids = rows.stream().map(NotificationOutbox::getId).collect(Collectors.toList());
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(from);
+        mail.setTo(rows.get(0).getRecipient());
+        mail.setSubject(rows.size() == 1 ? "[Bugs] " + rows.get(0).getMessage() : "[Bugs] " + rows.size() + " bug updates");
+        StringBuilder body = new StringBuilder();
+        for (NotificationOutbox row : rows.subList(0, Math.min(rows.size(), MAX_DIGEST_LINES))) {
+            body.append(row.getMessage()).append('\n');
+        }
+        if (rows.size() > MAX_DIGEST_LINES) {
+            body.append("... and ").append(rows.size() - MAX_DIGEST_LINES).append(" more\n");
+        }
+        mail.setText(body.toString());
+
+        try {
+            mailSender.send(mail);
+        } catch (RuntimeException e) {
+            // Not just MailException: anything that stops this digest must not stop the others
+            int attempts = rows.stream().mapToInt(NotificationOutbox::getAttempts).max().orElse(0) + 1;
+            if (attempts >= maxAttempts) {
+                outboxRepository.markFailed(ids, attempts);
+                log.warn("Giving up on {} notifications for {} after {} attempts: {}",
+                        rows.size(), mail.getTo()[0], attempts, e.getMessage());
+                return;
+            }
+            // Exponential backoff; the rows stay in the outbox and come back through a sweep
+            long delay = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 20));
+            Instant next = Instant.now().plusMillis(delay);
+            outboxRepository.scheduleRetry(ids, attempts, next);
+            retryAt(next);
+            log.warn("Could not send {} notifications to {} (attempt {}), retrying in {} ms: {}",
+                    rows.size(), mail.getTo()[0], attempts, delay, e.getMessage());
+            return;
+        }
+        outboxRepository.deleteByIds(ids);
+    }
+
+    // Sweep again at the earliest pending retry
+    private void retryAt(Instant next) {
+        Instant retryAt = nextRetryAt;
+        if (next != null && (retryAt == null || next.isBefore(retryAt))) {
+            nextRetryAt = next;
+        }
+    }
+
+    private void enqueue(List<NotificationOutbox> rows) {
+        for (NotificationOutbox row : rows) {
+            inFlight.add(row.getId());
+            if (!queue.offer(row)) {
+                // Stays in the outbox; the next sweep picks it up
+                inFlight.remove(row.getId());
+                sweepNeeded = true;
+            }
+        }
+    }
+
+    // Rows written by the current transaction, queued together once it commits
+    @SuppressWarnings("unchecked")
+    private List<NotificationOutbox> pendingInTransaction() {
+        List<NotificationOutbox> pending = (List<NotificationOutbox>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<NotificationOutbox> rows = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, rows);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(rows);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BugNotificationService.this);
+            }
+        });
+        return rows;
+    }
+
+    // The reporter when it is an e-mail address, plus the configured recipients. Bugs have no assignee
+    // or watchers yet; those would be added here.
+    private Set<String> recipientsFor(BugChangedEvent event) {
+        Set<String> result = new LinkedHashSet<>(recipients);
+        BugSnapshot bug = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        String reporter = bug.getReporter() == null ? null : bug.getReporter().trim();
+        if (reporter != null && EMAIL.matcher(reporter).matches()
+                && result.stream().noneMatch(reporter::equalsIgnoreCase)) {
+            result.add(reporter);
+        }
+        return result;
+    }
+
+    // One digest line, or null when the change isn't worth a mail
+    static String describe(BugChangedEvent event) {
+        BugSnapshot before = event.getBefore();
+        BugSnapshot after = event.getAfter();
+        String line;
+        switch (event.getType()) {
+            case CREATED:
+                line = "#" + after.getBugId() + " opened: " + after.getTitle()
+                        + " [" + label(after.getStatus()) + ", " + label(after.getPriority()) + "]"
+                        + (after.getReporter() != null ? " by " + after.getReporter() : "");
+                break;
+            case UPDATED:
+                if (before.getStatus() == after.getStatus()) {
+                    return null;
+                }
+                line = "#" + after.getBugId() + " " + after.getTitle() + ": "
+                        + label(before.getStatus()) + " -> " + label(after.getStatus());
+                break;
+            default:
+                return null;
+        }
+        return line.length() > MAX_MESSAGE_LENGTH ? line.substring(0, MAX_MESSAGE_LENGTH - 3) + "..." : line;
+    }
+
+    private static String label(CodedEnum value) {
+        return value == null ? "none" : value.getLabel();
+    }
+}
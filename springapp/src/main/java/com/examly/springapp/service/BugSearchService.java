@@ -0,0 +1,12 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BugSearchHit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+// Ranked full-text search over bug title and description
+public interface BugSearchService {
+
+    // Hits ordered by relevance, best first; the pageable's sort is ignored
+    Page<BugSearchHit> search(String query, Pageable pageable);
+}
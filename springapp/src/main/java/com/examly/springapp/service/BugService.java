@@ -1,26 +1,80 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.config.CacheConfig;
+import com.examly.springapp.dto.BugFilter;
+import com.examly.springapp.dto.BugSummary;
+import com.examly.springapp.dto.BulkResult;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
 import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
 import com.examly.springapp.repository.BugRepository;
+import com.examly.springapp.repository.BugSpecifications;
+import com.examly.springapp.util.BugCursor;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 @Service
 public class BugService {
 
+    // Ids per UPDATE/DELETE statement and per transaction in bulk operations, keeps IN-lists and lock sets
+    // a sane size
+    private static final int BULK_CHUNK_SIZE = 1000;
+    // Largest page a list endpoint hands out; bigger reads go through /bugs/export
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final BugRepository bugRepository;
+    private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    public BugService(BugRepository bugRepository) {
+    public BugService(BugRepository bugRepository, FileStorageService fileStorageService,
+                      ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.bugRepository = bugRepository;
+        this.fileStorageService = fileStorageService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // ✅ Add Bug
+    @Transactional
     public Bug addBug(Bug bug) {
-        return bugRepository.save(bug);
+        Bug saved = bugRepository.save(bug);
+        eventPublisher.publishEvent(BugChangedEvent.created(BugSnapshot.of(saved)));
+        return saved;
     }
 
     // ✅ Get All Bugs (used in existing tests)
@@ -28,38 +82,362 @@ public class BugService {
         return bugRepository.findAll();
     }
 
-    // ✅ Get Bugs by Status
-    public List<Bug> getBugsByStatus(String status) {
-        return bugRepository.findByStatus(status);
+    // ✅ Filtered Bugs (paged, heap bounded by page size); an empty filter matches every bug
+    public Page<Bug> getBugs(BugFilter filter, Pageable pageable) {
+        return bugRepository.findAll(BugSpecifications.matching(filter), pageable);
     }
 
-    // ✅ Get Bug by ID
+    // ✅ Get Bug by ID (read-through cache). Collections are loaded up front because the cached
+    // instance outlives this session; callers must treat it as read-only.
+    @Cacheable(cacheNames = CacheConfig.BUGS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
     public Optional<Bug> getBugById(Long id) {
-        return bugRepository.findById(id);
+        return bugRepository.findById(id).map(bug -> {
+            Hibernate.initialize(bug.getImageUrls());
+            Hibernate.initialize(bug.getDocumentUrls());
+            return bug;
+        });
+    }
+
+    // Evicting after commit means a concurrent read can't put the pre-change row back in the cache
+    @CacheEvict(cacheNames = CacheConfig.BUGS, key = "#event.bugId")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictCachedBug(BugChangedEvent event) {
+    }
+
+    // ✅ Current version (ETag) of a bug without loading it
+    public Optional<Long> getBugVersion(Long id) {
+        return bugRepository.findVersionById(id);
     }
 
     // ✅ Update Bug
     public Bug updateBug(Long id, Bug updatedBug) {
+        return updateBug(id, updatedBug, null);
+    }
+
+    // ✅ Update Bug, only if its version is one of expectedVersions (null = unconditional)
+    @Transactional
+    public Bug updateBug(Long id, Bug updatedBug, Collection<Long> expectedVersions) {
         return bugRepository.findById(id).map(bug -> {
+            checkVersion(bug, expectedVersions);
+            BugSnapshot before = BugSnapshot.of(bug);
             bug.setTitle(updatedBug.getTitle());
             bug.setDescription(updatedBug.getDescription());
             bug.setStatus(updatedBug.getStatus());
             bug.setPriority(updatedBug.getPriority());
             bug.setReporter(updatedBug.getReporter());
             bug.setCreatedDate(updatedBug.getCreatedDate());
-            bug.setImageUrls(updatedBug.getImageUrls());
-            bug.setDocumentUrls(updatedBug.getDocumentUrls());
+            // Swapping in a new list makes Hibernate delete and re-insert every attachment row
+            if (!sameElements(bug.getImageUrls(), updatedBug.getImageUrls())) {
+                bug.setImageUrls(updatedBug.getImageUrls());
+            }
+            if (!sameElements(bug.getDocumentUrls(), updatedBug.getDocumentUrls())) {
+                bug.setDocumentUrls(updatedBug.getDocumentUrls());
+            }
+            eventPublisher.publishEvent(BugChangedEvent.updated(before, BugSnapshot.of(bug)));
             return bugRepository.save(bug);
         }).orElseThrow(() -> new RuntimeException("Bug not found with id " + id));
     }
 
+    // ✅ Partial update from a JSON merge patch (RFC 7396): one read, and only the fields that actually
+    // change are touched, so @DynamicUpdate writes just those columns and untouched collections stay put
+    @Transactional
+    public Optional<Bug> patchBug(Long id, JsonNode patch, Collection<Long> expectedVersions) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        return bugRepository.findById(id).map(bug -> {
+            checkVersion(bug, expectedVersions);
+            BugSnapshot before = BugSnapshot.of(bug);
+            Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                applyPatchField(bug, field.getKey(), field.getValue());
+            }
+            eventPublisher.publishEvent(BugChangedEvent.updated(before, BugSnapshot.of(bug)));
+            return bug;
+        });
+    }
+
+    private void applyPatchField(Bug bug, String name, JsonNode value) {
+        switch (name) {
+            case "title":
+                setIfChanged(bug.getTitle(), patchText(name, value), bug::setTitle);
+                break;
+            case "description":
+                setIfChanged(bug.getDescription(), patchText(name, value), bug::setDescription);
+                break;
+            case "status":
+                setIfChanged(bug.getStatus(), BugStatus.fromValue(patchText(name, value)), bug::setStatus);
+                break;
+            case "priority":
+                setIfChanged(bug.getPriority(), BugPriority.fromValue(patchText(name, value)), bug::setPriority);
+                break;
+            case "reporter":
+                setIfChanged(bug.getReporter(), patchText(name, value), bug::setReporter);
+                break;
+            case "createdDate":
+                String date = patchText(name, value);
+                try {
+                    setIfChanged(bug.getCreatedDate(), date == null ? null : LocalDate.parse(date), bug::setCreatedDate);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("createdDate must be an ISO date", e);
+                }
+                break;
+            case "imageUrls":
+            case "documentUrls":
+                // Stored names are reference-counted blobs; only the upload and attachment endpoints keep
+                // the counts (and the files) in step with these lists
+                throw new IllegalArgumentException(name + " cannot be patched; upload with PUT /bugs/{id} "
+                        + "and remove with DELETE /bugs/{id}/attachments/{filename}");
+            case "bugId":
+                if (!value.isNumber() || value.asLong() != bug.getBugId()) {
+                    throw new IllegalArgumentException("bugId cannot be changed");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown field: " + name);
+        }
+    }
+
+    private static <T> void setIfChanged(T current, T patched, Consumer<T> setter) {
+        if (!Objects.equals(current, patched)) {
+            setter.accept(patched);
+        }
+    }
+
+    private static String patchText(String name, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        return value.asText();
+    }
+
+    // ✅ Remove one attachment from a bug; the file itself is deleted once the change commits.
+    // false when the bug doesn't exist or doesn't reference that file under the given type.
+    @Transactional
+    public boolean removeAttachment(Long id, String filename, String type) {
+        Bug bug = bugRepository.findById(id).orElse(null);
+        if (bug == null) {
+            return false;
+        }
+        List<String> attachments;
+        if ("image".equalsIgnoreCase(type)) {
+            attachments = bug.getImageUrls();
+        } else if ("document".equalsIgnoreCase(type)) {
+            attachments = bug.getDocumentUrls();
+        } else {
+            return false;
+        }
+        BugSnapshot before = BugSnapshot.of(bug);
+        if (attachments == null || !attachments.remove(filename)) {
+            return false;
+        }
+        eventPublisher.publishEvent(BugChangedEvent.updated(before, BugSnapshot.of(bug)));
+        deleteFilesAfterCommit(List.of(filename));
+        return true;
+    }
+
+    // Hibernate's PersistentBag compares by identity, so compare element by element; null equals empty
+    private static boolean sameElements(List<String> current, List<String> updated) {
+        List<String> a = current != null ? new ArrayList<>(current) : new ArrayList<>();
+        List<String> b = updated != null ? updated : new ArrayList<>();
+        return a.equals(b);
+    }
+
     // ✅ Delete Bug
     public void deleteBug(Long id) {
-        bugRepository.deleteById(id);
+        deleteBug(id, null);
+    }
+
+    // ✅ Delete Bug, only if its version is one of expectedVersions (null = unconditional); its attachment
+    // files are released once the delete commits. false when there was no such bug.
+    // Hibernate's versioned DELETE also fails if the bug changes between this check and commit.
+    @Transactional
+    public boolean deleteBug(Long id, Collection<Long> expectedVersions) {
+        Bug bug = bugRepository.findById(id).orElse(null);
+        if (bug == null) {
+            return false;
+        }
+        checkVersion(bug, expectedVersions);
+        List<String> attachments = new ArrayList<>();
+        if (bug.getImageUrls() != null) {
+            attachments.addAll(bug.getImageUrls());
+        }
+        if (bug.getDocumentUrls() != null) {
+            attachments.addAll(bug.getDocumentUrls());
+        }
+        bugRepository.delete(bug);
+        eventPublisher.publishEvent(BugChangedEvent.deleted(BugSnapshot.of(bug)));
+        deleteFilesAfterCommit(attachments);
+        return true;
+    }
+
+    private static void checkVersion(Bug bug, Collection<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(bug.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Bug.class, bug.getBugId());
+        }
+    }
+
+    // ✅ Bulk status/priority change over ids or a filter, as set-based UPDATEs (no per-bug read or save).
+    // Each chunk of BULK_CHUNK_SIZE bugs commits on its own, so a broad filter never locks the whole table;
+    // if a chunk fails, the chunks before it stay applied.
+    public BulkResult bulkUpdate(List<Long> ids, BugFilter filter, BugStatus status, BugPriority priority) {
+        if (status == null && priority == null) {
+            throw new IllegalArgumentException("Nothing to update: status or priority is required");
+        }
+        return forEachChunk(ids, filter, chunk -> {
+            List<BugSnapshot> before = bugRepository.findSnapshotsByBugIds(chunk);
+            int affected = bugRepository.bulkUpdateStatusAndPriority(chunk, status, priority);
+            for (BugSnapshot snapshot : before) {
+                eventPublisher.publishEvent(
+                        BugChangedEvent.updated(snapshot, snapshot.withStatusAndPriority(status, priority)));
+            }
+            return affected;
+        });
+    }
+
+    // ✅ Bulk delete over ids or a filter, chunked like bulkUpdate; attachment files are removed once their
+    // chunk has committed
+    public BulkResult bulkDelete(List<Long> ids, BugFilter filter) {
+        return forEachChunk(ids, filter, chunk -> {
+            List<BugSnapshot> before = bugRepository.findSnapshotsByBugIds(chunk);
+            List<String> attachments = new ArrayList<>(bugRepository.findImageUrlsByBugIds(chunk));
+            attachments.addAll(bugRepository.findDocumentUrlsByBugIds(chunk));
+            bugRepository.deleteImageUrlsByBugIds(chunk);
+            bugRepository.deleteDocumentUrlsByBugIds(chunk);
+            int affected = bugRepository.deleteByBugIds(chunk);
+            for (BugSnapshot snapshot : before) {
+                eventPublisher.publishEvent(BugChangedEvent.deleted(snapshot));
+            }
+            deleteFilesAfterCommit(attachments);
+            return affected;
+        });
+    }
+
+    // Runs work over the targets one chunk (and one transaction) at a time. A filter is walked by id a
+    // chunk at a time, so its matches are never all loaded at once.
+    private BulkResult forEachChunk(List<Long> ids, BugFilter filter, ToIntFunction<List<Long>> work) {
+        int matched = 0;
+        int affected = 0;
+        if (ids != null && !ids.isEmpty()) {
+            List<Long> targets = new ArrayList<>(new LinkedHashSet<>(ids));
+            for (int i = 0; i < targets.size(); i += BULK_CHUNK_SIZE) {
+                List<Long> chunk = targets.subList(i, Math.min(i + BULK_CHUNK_SIZE, targets.size()));
+                matched += chunk.size();
+                affected += inTransaction(work, chunk);
+            }
+            return new BulkResult(matched, affected);
+        }
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("Either ids or a filter is required");
+        }
+        Specification<Bug> spec = BugSpecifications.matching(filter);
+        Long afterId = null;
+        List<Long> chunk;
+        while (!(chunk = bugRepository.findIds(spec, afterId, BULK_CHUNK_SIZE)).isEmpty()) {
+            matched += chunk.size();
+            affected += inTransaction(work, chunk);
+            afterId = chunk.get(chunk.size() - 1);
+        }
+        return new BulkResult(matched, affected);
+    }
+
+    private int inTransaction(ToIntFunction<List<Long>> work, List<Long> chunk) {
+        Integer affected = transactionTemplate.execute(status -> work.applyAsInt(chunk));
+        return affected != null ? affected : 0;
+    }
+
+    // Only touch the disk once the rows are gone for good
+    private void deleteFilesAfterCommit(Collection<String> filenames) {
+        if (filenames.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fileStorageService.deleteFiles(filenames);
+            }
+        });
+    }
+
+    // ✅ Summary view of the filtered list (list-view columns only)
+    public Page<BugSummary> getBugSummaries(BugFilter filter, Pageable pageable) {
+        return bugRepository.findSummaries(BugSpecifications.matching(filter), pageable);
+    }
+
+    // ✅ Keyset (cursor) page: seeks past the "after" token instead of scanning an OFFSET
+    // filter is optional and narrows the scan
+    public CursorPage<Bug> getBugsAfter(BugFilter filter, String after, String sortBy, Sort.Direction direction,
+                                        int size, boolean withTotal) {
+        return seekPage(filter, after, sortBy, direction, size, withTotal, bugRepository::findPageAfter);
+    }
+
+    // ✅ Keyset page in the summary view
+    public CursorPage<BugSummary> getBugSummariesAfter(BugFilter filter, String after, String sortBy,
+                                                       Sort.Direction direction, int size, boolean withTotal) {
+        return seekPage(filter, after, sortBy, direction, size, withTotal, bugRepository::findSummaryPageAfter);
+    }
+
+    private <T> CursorPage<T> seekPage(BugFilter filter, String after, String sortBy, Sort.Direction direction,
+                                       int size, boolean withTotal, SeekQuery<T> seek) {
+        checkPageSize(size);
+        // Checked here too: IllegalArgumentException from inside the repository arrives translated
+        BugSpecifications.checkSortable(sortBy);
+        Specification<Bug> spec = BugSpecifications.matching(filter);
+        BugCursor cursor = null;
+        if (after != null && !after.isEmpty()) {
+            cursor = BugCursor.decode(after);
+            if (!cursor.getSortBy().equals(sortBy) || cursor.getDirection() != direction) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT
+        List<T> rows;
+        try {
+            rows = seek.find(spec, sortBy, direction, cursor, size + 1);
+        } catch (InvalidDataAccessApiUsageException e) {
+            // The sort column is checked above, so with a cursor this is its value failing to convert
+            if (cursor == null) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + after, e);
+        }
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+
+        String nextCursor = hasNext ? cursorAfter(content.get(size - 1), sortBy, direction).encode() : null;
+        Long total = null;
+        if (withTotal) {
+            total = bugRepository.count(spec);
+        }
+        return new CursorPage<>(content, size, nextCursor, total);
+    }
+
+    // Works for both Bug and BugSummary rows, which share property names
+    private BugCursor cursorAfter(Object last, String sortBy, Sort.Direction direction) {
+        try {
+            BeanWrapperImpl row = new BeanWrapperImpl(last);
+            Object value = row.getPropertyValue(sortBy);
+            Long id = (Long) row.getPropertyValue("bugId");
+            return new BugCursor(sortBy, direction, id, value == null ? null : value.toString());
+        } catch (BeansException e) {
+            throw new IllegalArgumentException("Cannot page by " + sortBy + " in this view", e);
+        }
+    }
+
+    // IllegalArgumentException, which the controller answers with 400
+    public static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 
-    // ✅ Paginated + Sorted Bugs
-    public Page<Bug> getBugsPaginated(Pageable pageable) {
-        return bugRepository.findAll(pageable);
+    private interface SeekQuery<T> {
+        List<T> find(Specification<Bug> spec, String sortBy, Sort.Direction direction, BugCursor after, int limit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,239 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BugSummary;
+import com.examly.springapp.dto.SimilarBug;
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.repository.BugRepository;
+import com.examly.springapp.util.MinHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Duplicate detection: MinHash signatures of title + description in an in-memory banded LSH index.
+// A lookup only scores bugs that share at least one band bucket with the query, not the whole table.
+// The index is rebuilt from the database at startup and kept current from committed BugChangedEvents.
+@Service
+public class BugSimilarityService {
+
+    private static final Logger log = LoggerFactory.getLogger(BugSimilarityService.class);
+    private static final int REBUILD_BATCH = 500;
+
+    private final BugRepository bugRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MinHash minHash;
+    private final double threshold;
+    private final int maxResults;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, MinHash.Signature> signatures = new HashMap<>();
+    // One bucket map per band: band key -> ids; arrays are replaced, never mutated in place
+    private final List<Map<Integer, long[]>> buckets = new ArrayList<>();
+
+    // Ids changed by events while the startup rebuild runs; the rebuild must not overwrite them
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    public BugSimilarityService(BugRepository bugRepository, PlatformTransactionManager transactionManager,
+                                @Value("${bugs.similarity.bands:16}") int bands,
+                                @Value("${bugs.similarity.rows:4}") int rows,
+                                @Value("${bugs.similarity.threshold:0.5}") double threshold,
+                                @Value("${bugs.similarity.max-results:10}") int maxResults) {
+        this.bugRepository = bugRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minHash = new MinHash(bands, rows);
+        this.threshold = threshold;
+        this.maxResults = maxResults;
+        for (int b = 0; b < bands; b++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    // ✅ Likely duplicates of the given text, best match first
+    public List<SimilarBug> findSimilar(Long excludeId, String title, String description) {
+        MinHash.Signature query = minHash.signature(text(title, description));
+        if (query == null) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int b = 0; b < buckets.size(); b++) {
+                long[] ids = buckets.get(b).get(query.bandKey(b));
+                if (ids == null) {
+                    continue;
+                }
+                for (long id : ids) {
+                    if (scores.containsKey(id) || Long.valueOf(id).equals(excludeId)) {
+                        continue;
+                    }
+                    scores.put(id, query.similarity(signatures.get(id)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> best = scores.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(maxResults)
+                .collect(Collectors.toList());
+        if (best.isEmpty()) {
+            return List.of();
+        }
+
+        // Fetching the rows also drops candidates deleted since they were indexed
+        Map<Long, BugSummary> rows = bugRepository
+                .findSummariesByBugIds(best.stream().map(Map.Entry::getKey).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(BugSummary::getBugId, s -> s));
+        List<SimilarBug> result = new ArrayList<>();
+        for (Map.Entry<Long, Double> hit : best) {
+            BugSummary row = rows.get(hit.getKey());
+            if (row != null) {
+                result.add(new SimilarBug(row.getBugId(), row.getTitle(), row.getStatus(), hit.getValue()));
+            }
+        }
+        result.sort(Comparator.comparingDouble(SimilarBug::getSimilarity).reversed());
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBugChanged(BugChangedEvent event) {
+        BugSnapshot after = event.getAfter();
+        MinHash.Signature signature = after == null ? null
+                : minHash.signature(text(after.getTitle(), after.getDescription()));
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(event.getBugId());
+            }
+            remove(event.getBugId());
+            if (signature != null) {
+                add(event.getBugId(), signature);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The rebuild streams every bug, so run it off the startup thread; lookups work (partially) meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "bug-similarity-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<BugSnapshot> rows = bugRepository.streamSnapshots()) {
+                    List<Long> ids = new ArrayList<>(REBUILD_BATCH);
+                    List<MinHash.Signature> batch = new ArrayList<>(REBUILD_BATCH);
+                    rows.forEach(row -> {
+                        MinHash.Signature signature = minHash.signature(text(row.getTitle(), row.getDescription()));
+                        if (signature == null) {
+                            return;
+                        }
+                        ids.add(row.getBugId());
+                        batch.add(signature);
+                        if (ids.size() == REBUILD_BATCH) {
+                            addRebuilt(ids, batch);
+                        }
+                    });
+                    addRebuilt(ids, batch);
+                }
+            });
+            log.info("Similarity index rebuilt with {} bugs in {} ms",
+                    signatures.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Similarity index rebuild failed; duplicates are only detected among bugs changed since startup", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void addRebuilt(List<Long> ids, List<MinHash.Signature> batch) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                if (!changedDuringRebuild.contains(ids.get(i))) {
+                    remove(ids.get(i));
+                    add(ids.get(i), batch.get(i));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ids.clear();
+        batch.clear();
+    }
+
+    // Callers hold the write lock
+    private void add(long id, MinHash.Signature signature) {
+        signatures.put(id, signature);
+        for (int b = 0; b < buckets.size(); b++) {
+            buckets.get(b).merge(signature.bandKey(b), new long[]{id}, (ids, single) -> {
+                long[] grown = Arrays.copyOf(ids, ids.length + 1);
+                grown[ids.length] = id;
+                return grown;
+            });
+        }
+    }
+
+    private void remove(long id) {
+        MinHash.Signature old = signatures.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (int b = 0; b < buckets.size(); b++) {
+            // Returning null from computeIfPresent drops the now-empty bucket
+            buckets.get(b).computeIfPresent(old.bandKey(b), (key, ids) -> {
+                long[] kept = Arrays.stream(ids).filter(other -> other != id).toArray();
+                return kept.length == 0 ? null : kept;
+            });
+        }
+    }
+
+    private static String text(String title, String description) {
+        return (title == null ? "" : title) + " " + (description == null ? "" : description);
+    }
+}
@@ -0,0 +1,165 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BugStats;
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.model.CodedEnum;
+import com.examly.springapp.repository.BugRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// In-memory bug counts for GET /bugs/stats. Committed BugChangedEvents move the counters,
+// and a scheduled reconcile replaces them with SQL GROUP BY results to correct any drift.
+@Service
+public class BugStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BugStatsService.class);
+    // Map key for bugs with no value in a dimension (JSON object keys cannot be null)
+    public static final String NONE = "none";
+
+    private final BugRepository bugRepository;
+
+    private volatile Counters counters = new Counters(null);
+
+    public BugStatsService(BugRepository bugRepository) {
+        this.bugRepository = bugRepository;
+    }
+
+    // ✅ Current counts; histogram buckets are "day", "week" (starting Monday) or "month"
+    public BugStats getStats(String bucket, LocalDate from, LocalDate to, int topReporters) {
+        Function<LocalDate, LocalDate> bucketStart = bucketStart(bucket);
+        Counters current = counters;
+
+        Map<String, Long> histogram = new TreeMap<>();
+        current.byDay.forEach((day, count) -> {
+            if ((from == null || !day.isBefore(from)) && (to == null || !day.isAfter(to))) {
+                histogram.merge(bucketStart.apply(day).toString(), count.sum(), Long::sum);
+            }
+        });
+        histogram.values().removeIf(count -> count == 0);
+
+        Map<String, Long> reporters = current.byReporter.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topReporters)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+
+        return new BugStats(current.total.sum(), sums(current.byStatus), sums(current.byPriority), reporters,
+                bucket, histogram, current.reconciledAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBugChanged(BugChangedEvent event) {
+        Counters current = counters;
+        if (event.getBefore() != null) {
+            current.add(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            current.add(event.getAfter(), 1);
+        }
+    }
+
+    // Runs right after startup, then every bugs.stats.reconcile-interval-ms. Changes that commit while
+    // the aggregates are being read can be lost from the fresh counters until the next run.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${bugs.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Counters fresh = new Counters(Instant.now());
+        fresh.total.add(bugRepository.count());
+        load(fresh.byStatus, bugRepository.countGroupByStatus());
+        load(fresh.byPriority, bugRepository.countGroupByPriority());
+        load(fresh.byReporter, bugRepository.countGroupByReporter());
+        for (Object[] row : bugRepository.countGroupByCreatedDate()) {
+            if (row[0] != null) {
+                fresh.byDay.computeIfAbsent((LocalDate) row[0], k -> new LongAdder()).add((Long) row[1]);
+            }
+        }
+
+        Counters previous = counters;
+        counters = fresh;
+        if (previous.reconciledAt != null && previous.total.sum() != fresh.total.sum()) {
+            log.info("Bug stats drifted by {} since the last reconcile", fresh.total.sum() - previous.total.sum());
+        }
+    }
+
+    private static void load(Map<String, LongAdder> target, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            String key = row[0] instanceof CodedEnum ? key((CodedEnum) row[0]) : key((String) row[0]);
+            target.computeIfAbsent(key, k -> new LongAdder()).add((Long) row[1]);
+        }
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counts) {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((key, count) -> {
+            long sum = count.sum();
+            if (sum != 0) {
+                result.put(key, sum);
+            }
+        });
+        return result;
+    }
+
+    private static Function<LocalDate, LocalDate> bucketStart(String bucket) {
+        switch (bucket) {
+            case "day":
+                return day -> day;
+            case "week":
+                return day -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month":
+                return day -> day.withDayOfMonth(1);
+            default:
+                throw new IllegalArgumentException("Unknown bucket: " + bucket);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null || value.isEmpty() ? NONE : value;
+    }
+
+    private static String key(CodedEnum value) {
+        return value == null ? NONE : value.getLabel();
+    }
+
+    // One complete set of counters; swapped wholesale on reconcile. LongAdder keeps concurrent
+    // increments from different request threads off a single contended cache line.
+    private static final class Counters {
+
+        private final Instant reconciledAt;
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> byPriority = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> byReporter = new ConcurrentHashMap<>();
+        private final Map<LocalDate, LongAdder> byDay = new ConcurrentHashMap<>();
+
+        private Counters(Instant reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        private void add(BugSnapshot bug, int delta) {
+            total.add(delta);
+            byStatus.computeIfAbsent(key(bug.getStatus()), k -> new LongAdder()).add(delta);
+            byPriority.computeIfAbsent(key(bug.getPriority()), k -> new LongAdder()).add(delta);
+            byReporter.computeIfAbsent(key(bug.getReporter()), k -> new LongAdder()).add(delta);
+            if (bug.getCreatedDate() != null) {
+                byDay.computeIfAbsent(bug.getCreatedDate(), k -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
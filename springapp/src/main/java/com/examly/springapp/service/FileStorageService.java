@@ -1,62 +1,308 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.event.FileStoredEvent;
+import com.examly.springapp.repository.StoredFileRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+// Content-addressed store: a file is named after the SHA-256 of its bytes (plus extension), so the same
+// upload attached to many bugs is kept once. stored_file counts the references; deleteFile drops one
+// and removes the blob when none are left. Files from before hashing (UUID names) have no count and
+// are deleted directly. The bytes themselves live in a StorageBackend (sharded local disk or S3).
 @Service
 public class FileStorageService {
+
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+    // Serialises store/delete of the same name (a delete must not remove a blob a store just reused)
+    private static final int LOCK_STRIPES = 64;
+    // Derived renditions kept next to an original as "<name>.<variant><ext>" (see ThumbnailService)
+    public static final List<String> DERIVATIVES = List.of("thumb", "preview");
+    private static final Pattern DERIVATIVE_NAME = Pattern.compile("(.+)\\.(thumb|preview)(\\.[^.]+)");
+
+    // Uploads are hashed here before the backend takes them, so it must be local disk whatever the backend
+    private final Path incomingLocation;
+    private final StorageBackend storage;
+    private final StoredFileRepository storedFileRepository;
+    private final Executor attachmentExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
     
-    private final Path rootLocation = Paths.get("uploads");
-    
-    public FileStorageService() {
+    public FileStorageService(StorageBackend storage,
+                              StoredFileRepository storedFileRepository,
+                              @Qualifier("attachmentExecutor") Executor attachmentExecutor,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${storage.local.root:uploads}") String localRoot) {
+        this.storage = storage;
+        this.incomingLocation = Paths.get(localRoot).resolve(".incoming");
+        this.storedFileRepository = storedFileRepository;
+        this.attachmentExecutor = attachmentExecutor;
+        this.eventPublisher = eventPublisher;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
         try {
-            Files.createDirectories(rootLocation);
+            Files.createDirectories(incomingLocation);
         } catch (IOException e) {
             throw new RuntimeException("Could not initialize storage directory");
         }
     }
     
+    // Streams the upload to a temp file while hashing it (never held in memory), then moves it into
+    // place under its hash, or drops it if that content is already stored
     public String storeFile(MultipartFile file) {
         try {
             if (file.isEmpty()) {
                 throw new RuntimeException("Failed to store empty file");
             }
             
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename.contains(".") ? 
-                originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-            String newFilename = UUID.randomUUID().toString() + fileExtension;
-            
-            // Copy file to target location
-            Path destinationFile = this.rootLocation.resolve(
-                Paths.get(newFilename))
-                .normalize().toAbsolutePath();
-            
-            Files.copy(file.getInputStream(), destinationFile);
-            
-            return newFilename;
-        } catch (IOException e) {
+            Path temp = Files.createTempFile(incomingLocation, "upload-", ".part");
+            try {
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                long size;
+                try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+                    size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                String newFilename = HexFormat.of().formatHex(sha256.digest()) + extension(file.getOriginalFilename());
+
+                boolean created = false;
+                ReentrantLock lock = lockFor(newFilename);
+                lock.lock();
+                try {
+                    if (storage.exists(newFilename)) {
+                        Files.delete(temp);
+                    } else {
+                        storage.put(newFilename, temp);
+                        created = true;
+                    }
+                    storedFileRepository.addReference(newFilename, size);
+                } finally {
+                    lock.unlock();
+                }
+                if (created) {
+                    eventPublisher.publishEvent(new FileStoredEvent(newFilename));
+                }
+                return newFilename;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
             throw new RuntimeException("Failed to store file", e);
         }
     }
     
+    // Stores several uploads concurrently on the attachment I/O pool; names come back in input order.
+    // All-or-nothing: waits for every write, and if any failed removes the ones that succeeded.
+    public List<String> storeFiles(List<MultipartFile> files) {
+        List<CompletableFuture<String>> writes = new ArrayList<>();
+        for (MultipartFile file : files) {
+            writes.add(CompletableFuture.supplyAsync(() -> storeFile(file), attachmentExecutor));
+        }
+
+        List<String> stored = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<String> write : writes) {
+            try {
+                stored.add(write.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause() : new RuntimeException("Failed to store file", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            deleteFiles(stored);
+            throw failure;
+        }
+        return stored;
+    }
+    
+    // Drops one reference; true when that was the last one and the file was removed from storage
     public boolean deleteFile(String filename) {
+        checkName(filename);
+        ReentrantLock lock = lockFor(filename);
+        lock.lock();
         try {
-            Path filePath = this.rootLocation.resolve(filename).normalize().toAbsolutePath();
-            return Files.deleteIfExists(filePath);
+            // Files stored before content addressing have no count: they were only ever referenced once
+            if (storedFileRepository.removeReference(filename) != 0
+                    && storedFileRepository.deleteIfUnreferenced(filename) == 0) {
+                return false;
+            }
+            for (String variant : DERIVATIVES) {
+                storage.delete(derivativeName(filename, variant));
+            }
+            return storage.delete(filename);
         } catch (IOException e) {
             throw new RuntimeException("Failed to delete file", e);
+        } finally {
+            lock.unlock();
         }
     }
     
-    public Path loadFile(String filename) {
-        return rootLocation.resolve(filename);
+    // Removes a file no bug points at, with its renditions and count, if stillOrphaned holds once the
+    // file is locked (nothing can add a reference meanwhile). Used by StorageReconciler.
+    public boolean purgeOrphan(String filename, BooleanSupplier stillOrphaned) {
+        ReentrantLock lock = lockFor(checkName(filename));
+        lock.lock();
+        try {
+            if (!stillOrphaned.getAsBoolean()) {
+                return false;
+            }
+            storedFileRepository.deleteByFilename(filename);
+            for (String variant : DERIVATIVES) {
+                storage.delete(derivativeName(filename, variant));
+            }
+            return storage.delete(filename);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes a rendition whose original is gone; false when the original exists after all
+    public boolean deleteStrayDerivative(String derivativeName) {
+        String original = originalOf(derivativeName);
+        if (original == null) {
+            throw new RuntimeException("Not a rendition: " + derivativeName);
+        }
+        ReentrantLock lock = lockFor(original);
+        lock.lock();
+        try {
+            return !storage.exists(original) && storage.delete(derivativeName);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Deletes many files in one pass; a failure on one file doesn't stop the rest
+    public int deleteFiles(Collection<String> filenames) {
+        int deleted = 0;
+        for (String filename : filenames) {
+            try {
+                if (deleteFile(filename)) {
+                    deleted++;
+                }
+            } catch (RuntimeException e) {
+                // Leave it for the next cleanup; the bug rows are already gone
+            }
+        }
+        return deleted;
+    }
+    
+    public boolean exists(String filename) {
+        try {
+            return storage.exists(checkName(filename));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file", e);
+        }
+    }
+
+    public InputStream openFile(String filename) throws IOException {
+        return storage.open(checkName(filename));
+    }
+
+    // The file on local disk, when the backend keeps one (enables zero-copy downloads)
+    public Optional<Path> localPath(String filename) {
+        return storage.localPath(filename);
+    }
+
+    // A short-lived direct link, for backends without local files
+    public Optional<URI> downloadUrl(String filename) {
+        return storage.downloadUrl(checkName(filename));
+    }
+
+    // Every stored name, originals and renditions alike, read lazily; close the stream
+    public Stream<String> listFiles() {
+        try {
+            return storage.list();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to list files", e);
+        }
+    }
+
+    // The original a rendition belongs to, or null when the name is not a rendition
+    public static String originalOf(String filename) {
+        Matcher matcher = DERIVATIVE_NAME.matcher(filename);
+        return matcher.matches() ? matcher.group(1) + matcher.group(3) : null;
+    }
+
+    // Name of a derived rendition of a stored file: "<name>.<variant><ext>", kept beside the original
+    public String derivativeName(String filename, String variant) {
+        int dot = checkName(filename).lastIndexOf('.');
+        return dot > 0
+                ? filename.substring(0, dot) + "." + variant + filename.substring(dot)
+                : filename + "." + variant;
+    }
+
+    // Scratch file in the incoming directory, for content produced server-side (renditions)
+    public Path createTempFile(String prefix) throws IOException {
+        return Files.createTempFile(incomingLocation, prefix, ".part");
+    }
+
+    // Hands a finished rendition to the backend. Renditions are not reference counted: they go with
+    // their original in deleteFile, so one finished after its original was deleted is dropped.
+    public boolean storeDerivative(String filename, String derivativeName, Path source) throws IOException {
+        ReentrantLock lock = lockFor(checkName(filename));
+        lock.lock();
+        try {
+            if (!storage.exists(filename)) {
+                return false;
+            }
+            storage.put(checkName(derivativeName), source);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String checkName(String filename) {
+        if (filename == null || filename.isEmpty() || filename.startsWith(".")
+                || filename.contains("/") || filename.contains("\\")) {
+            throw new RuntimeException("Invalid file name: " + filename);
+        }
+        return filename;
+    }
+
+    private ReentrantLock lockFor(String filename) {
+        return locks[Math.floorMod(filename.hashCode(), LOCK_STRIPES)];
+    }
+
+    // Keep a plain extension only; anything odd in the client's file name is dropped
+    private static String extension(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension.toLowerCase() : "";
     }
-}
\ No newline at end of file
+}
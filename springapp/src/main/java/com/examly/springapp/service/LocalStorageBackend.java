@@ -0,0 +1,184 @@
+package com.examly.springapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Files on local disk, sharded by the first four characters of the name ("uploads/ab/cd/abcd...png")
+// so no directory grows past a few thousand entries. Files from the old flat layout ("uploads/<name>")
+// are still found, and migrateFlatFiles moves them into their shard while the app keeps serving.
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalStorageBackend.class);
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,254}");
+    private static final Pattern SHARDABLE = Pattern.compile("[0-9a-z]{4}.*");
+
+    private final Path rootLocation;
+    private final boolean migrateOnStartup;
+    private final int migrationBatchSize;
+    private final long migrationPauseMs;
+
+    public LocalStorageBackend(@Value("${storage.local.root:uploads}") String root,
+                               @Value("${storage.local.migration.on-startup:true}") boolean migrateOnStartup,
+                               @Value("${storage.local.migration.batch-size:500}") int migrationBatchSize,
+                               @Value("${storage.local.migration.pause-ms:200}") long migrationPauseMs) {
+        this.rootLocation = Paths.get(root).toAbsolutePath().normalize();
+        this.migrateOnStartup = migrateOnStartup;
+        this.migrationBatchSize = Math.max(1, migrationBatchSize);
+        this.migrationPauseMs = migrationPauseMs;
+        try {
+            Files.createDirectories(rootLocation);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not initialize storage directory");
+        }
+    }
+
+    @Override
+    public boolean exists(String name) {
+        return localPath(name).isPresent();
+    }
+
+    @Override
+    public void put(String name, Path source) throws IOException {
+        Path target = shardedPath(checkName(name));
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream open(String name) throws IOException {
+        Path file = localPath(name).orElseThrow(() -> new NoSuchFileException(name));
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public boolean delete(String name) throws IOException {
+        checkName(name);
+        // Both places: the migration may be moving this very file
+        boolean sharded = Files.deleteIfExists(shardedPath(name));
+        boolean flat = Files.deleteIfExists(rootLocation.resolve(name));
+        return sharded || flat;
+    }
+
+    @Override
+    public Optional<Path> localPath(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path sharded = shardedPath(name);
+        if (Files.isRegularFile(sharded)) {
+            return Optional.of(sharded);
+        }
+        Path flat = rootLocation.resolve(name);
+        if (Files.isRegularFile(flat)) {
+            return Optional.of(flat);
+        }
+        // Moved into its shard between the two checks
+        return Files.isRegularFile(sharded) ? Optional.of(sharded) : Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String name) {
+        return Optional.empty();
+    }
+
+    // Shards and flat files alike; dot-directories (.incoming and the like) are not storage
+    @Override
+    public Stream<String> list() throws IOException {
+        return Files.walk(rootLocation, 3)
+                .filter(path -> !isHidden(rootLocation.relativize(path)))
+                .filter(Files::isRegularFile)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> VALID_NAME.matcher(name).matches());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread migration = new Thread(this::migrateFlatFiles, "storage-shard-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    // ✅ Moves files left in the flat layout into their shard, a batch at a time with a pause in between
+    // so it never competes with live traffic for the disk. Each move is an atomic rename, and reads and
+    // deletes look in both places, so this runs while the app is serving. Returns how many were moved.
+    public int migrateFlatFiles() {
+        int moved = 0;
+        try (DirectoryStream<Path> flat = Files.newDirectoryStream(rootLocation, Files::isRegularFile)) {
+            for (Path file : flat) {
+                String name = file.getFileName().toString();
+                if (!VALID_NAME.matcher(name).matches() || !SHARDABLE.matcher(name).matches()) {
+                    continue;
+                }
+                Path target = shardedPath(name);
+                try {
+                    Files.createDirectories(target.getParent());
+                    // Same name means same content (or the same legacy upload), so replacing is safe
+                    Files.move(file, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    moved++;
+                } catch (NoSuchFileException e) {
+                    // Deleted meanwhile
+                    continue;
+                }
+                if (moved % migrationBatchSize == 0) {
+                    log.info("Moved {} stored files into shards so far", moved);
+                    Thread.sleep(migrationPauseMs);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Shard migration stopped after {} files: {}", moved, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (moved > 0) {
+            log.info("Shard migration done: {} files moved", moved);
+        }
+        return moved;
+    }
+
+    private Path shardedPath(String name) {
+        if (!SHARDABLE.matcher(name).matches()) {
+            return rootLocation.resolve(name);
+        }
+        return rootLocation.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+
+    private static String checkName(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid file name: " + name);
+        }
+        return name;
+    }
+
+    private static boolean isHidden(Path relative) {
+        for (Path part : relative) {
+            if (part.toString().startsWith(".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
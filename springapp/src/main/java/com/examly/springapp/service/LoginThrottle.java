@@ -0,0 +1,55 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.util.SlidingWindowCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// Login attempt limits: every attempt counts against the client IP, only failures count against
+// the account (and a successful login clears them), so an attacker can't lock out a real user by IP.
+@Component
+public class LoginThrottle {
+
+    private final SlidingWindowCounter attemptsByIp;
+    private final SlidingWindowCounter failuresByAccount;
+
+    public LoginThrottle(@Value("${auth.throttle.ip.max-attempts:30}") int ipMaxAttempts,
+                         @Value("${auth.throttle.ip.window-seconds:60}") long ipWindowSeconds,
+                         @Value("${auth.throttle.account.max-failures:5}") int accountMaxFailures,
+                         @Value("${auth.throttle.account.window-seconds:900}") long accountWindowSeconds) {
+        this.attemptsByIp = new SlidingWindowCounter(ipMaxAttempts, ipWindowSeconds * 1000);
+        this.failuresByAccount = new SlidingWindowCounter(accountMaxFailures, accountWindowSeconds * 1000);
+    }
+
+    // Counts the attempt; returns seconds to wait when it must be refused, 0 when it may proceed
+    public long acquire(String email, String clientIp) {
+        String account = accountKey(email);
+        if (failuresByAccount.isLimited(account)) {
+            return failuresByAccount.retryAfterSeconds(account);
+        }
+        if (!attemptsByIp.tryAcquire(clientIp)) {
+            return attemptsByIp.retryAfterSeconds(clientIp);
+        }
+        return 0;
+    }
+
+    public void onFailure(String email) {
+        failuresByAccount.record(accountKey(email));
+    }
+
+    public void onSuccess(String email) {
+        failuresByAccount.reset(accountKey(email));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        attemptsByIp.sweep();
+        failuresByAccount.sweep();
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
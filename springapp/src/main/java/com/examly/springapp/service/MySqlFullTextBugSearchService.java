@@ -0,0 +1,28 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BugSearchHit;
+import com.examly.springapp.repository.BugRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+// Backed by the InnoDB FULLTEXT index ft_bug_title_description (created by BugSchemaInitializer).
+// InnoDB maintains that index inside each insert/update/delete transaction, so addBug, updateBug,
+// deleteBug and the bulk paths keep it current without any extra indexing calls.
+@Service
+public class MySqlFullTextBugSearchService implements BugSearchService {
+
+    private final BugRepository bugRepository;
+
+    public MySqlFullTextBugSearchService(BugRepository bugRepository) {
+        this.bugRepository = bugRepository;
+    }
+
+    @Override
+    public Page<BugSearchHit> search(String query, Pageable pageable) {
+        // Ordering is by relevance in the query itself
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return bugRepository.searchFullText(query.trim(), unsorted);
+    }
+}
@@ -0,0 +1,168 @@
+package com.examly.springapp.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Objects in an S3-compatible bucket under "<prefix><name>". storage.s3.endpoint points it at anything
+// that speaks the S3 API (MinIO, LocalStack, Ceph) for local runs and tests; path-style addressing keeps
+// those working without wildcard DNS. Downloads are handed to the store through presigned URLs, since
+// there is no local file to sendfile.
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+public class S3StorageBackend implements StorageBackend, DisposableBean {
+
+    private final S3Client s3;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final String prefix;
+    private final Duration linkTtl;
+
+    public S3StorageBackend(@Value("${storage.s3.bucket}") String bucket,
+                            @Value("${storage.s3.prefix:uploads/}") String prefix,
+                            @Value("${storage.s3.region:us-east-1}") String region,
+                            @Value("${storage.s3.endpoint:}") String endpoint,
+                            @Value("${storage.s3.path-style:true}") boolean pathStyle,
+                            @Value("${storage.s3.access-key:}") String accessKey,
+                            @Value("${storage.s3.secret-key:}") String secretKey,
+                            @Value("${storage.s3.link-ttl-seconds:600}") long linkTtlSeconds) {
+        this.bucket = bucket;
+        this.prefix = prefix;
+        this.linkTtl = Duration.ofSeconds(linkTtlSeconds);
+
+        // Explicit keys for stand-ins; otherwise the usual AWS chain (env, profile, instance role)
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        S3Configuration serviceConfig = S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build();
+
+        var client = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfig);
+        var presign = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfig);
+        if (!endpoint.isBlank()) {
+            client.endpointOverride(URI.create(endpoint));
+            presign.endpointOverride(URI.create(endpoint));
+        }
+        this.s3 = client.build();
+        this.presigner = presign.build();
+    }
+
+    @Override
+    public boolean exists(String name) throws IOException {
+        try {
+            s3.headObject(request -> request.bucket(bucket).key(key(name)));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            // HEAD has no body, so a missing key comes back as a bare 404
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Could not check " + name, e);
+        }
+    }
+
+    @Override
+    public void put(String name, Path source) throws IOException {
+        try {
+            s3.putObject(request -> request.bucket(bucket).key(key(name)), RequestBody.fromFile(source));
+        } catch (S3Exception e) {
+            throw new IOException("Could not upload " + name, e);
+        }
+        Files.deleteIfExists(source);
+    }
+
+    @Override
+    public InputStream open(String name) throws IOException {
+        try {
+            return s3.getObject(request -> request.bucket(bucket).key(key(name)));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(name);
+        } catch (S3Exception e) {
+            throw new IOException("Could not read " + name, e);
+        }
+    }
+
+    @Override
+    public boolean delete(String name) throws IOException {
+        if (!exists(name)) {
+            return false;
+        }
+        try {
+            s3.deleteObject(request -> request.bucket(bucket).key(key(name)));
+            return true;
+        } catch (S3Exception e) {
+            throw new IOException("Could not delete " + name, e);
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String name) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String name) {
+        try {
+            URI url = presigner.presignGetObject(presign -> presign
+                    .signatureDuration(linkTtl)
+                    .getObjectRequest(request -> request.bucket(bucket).key(key(name))))
+                    .url().toURI();
+            return Optional.of(url);
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    // Pages through the listing as the stream is consumed
+    @Override
+    public Stream<String> list() {
+        return s3.listObjectsV2Paginator(request -> request.bucket(bucket).prefix(prefix))
+                .contents().stream()
+                .map(S3Object::key)
+                .map(key -> key.substring(prefix.length()))
+                .filter(name -> !name.isEmpty() && !name.contains("/"));
+    }
+
+    @Override
+    public void destroy() {
+        presigner.close();
+        s3.close();
+    }
+
+    private String key(String name) {
+        if (name == null || name.isEmpty() || name.contains("/") || name.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid file name: " + name);
+        }
+        return prefix + name;
+    }
+}
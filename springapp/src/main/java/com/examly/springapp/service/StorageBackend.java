@@ -0,0 +1,34 @@
+package com.examly.springapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Where FileStorageService keeps its blobs. Names are flat ("<hash><ext>", legacy UUID names and
+// derivatives); how they are laid out underneath is up to the backend. Reference counting, hashing and
+// locking stay in FileStorageService, so a backend only moves bytes.
+public interface StorageBackend {
+
+    boolean exists(String name) throws IOException;
+
+    // Takes over a finished local file (hashed in FileStorageService's incoming directory) under name,
+    // replacing any object already there. The source is gone or may be deleted afterwards.
+    void put(String name, Path source) throws IOException;
+
+    InputStream open(String name) throws IOException;
+
+    // true when something was removed
+    boolean delete(String name) throws IOException;
+
+    // The file on local disk, when this backend keeps one; lets downloads go out through sendfile
+    Optional<Path> localPath(String name);
+
+    // A short-lived link clients can fetch the object from directly, for backends without local files
+    Optional<URI> downloadUrl(String name);
+
+    // Every stored name, read lazily; callers close the stream
+    Stream<String> list() throws IOException;
+}
@@ -0,0 +1,204 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AttachmentReference;
+import com.examly.springapp.dto.StorageReport;
+import com.examly.springapp.repository.BugRepository;
+import com.examly.springapp.repository.StoredFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Brings storage and the attachment tables back in line after failed requests or crashes.
+// Walks storage in chunks and asks the element-collection tables which names in each chunk are
+// referenced. An unreferenced file is quarantined (remembered, not touched) and deleted only if it is
+// still unreferenced, with the same reference count, after the grace period; that covers uploads whose
+// bug has not committed yet. Renditions whose original is gone are deleted at once. A second walk over
+// the bugs reports references to files that no longer exist (those can't be repaired, only reported).
+// Pauses after every chunk so it never competes with request I/O.
+@Service
+public class StorageReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageReconciler.class);
+
+    private static final int MAX_DANGLING_SAMPLES = 100;
+
+    private final FileStorageService fileStorageService;
+    private final BugRepository bugRepository;
+    private final StoredFileRepository storedFileRepository;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long graceMs;
+    // Unreferenced files waiting out the grace period
+    private final Map<String, Suspect> quarantine = new ConcurrentHashMap<>();
+    private volatile StorageReport lastReport;
+
+    public StorageReconciler(FileStorageService fileStorageService,
+                             BugRepository bugRepository,
+                             StoredFileRepository storedFileRepository,
+                             @Value("${storage.reconcile.enabled:true}") boolean enabled,
+                             @Value("${storage.reconcile.chunk-size:200}") int chunkSize,
+                             @Value("${storage.reconcile.pause-ms:250}") long pauseMs,
+                             @Value("${storage.reconcile.grace-ms:86400000}") long graceMs) {
+        this.fileStorageService = fileStorageService;
+        this.bugRepository = bugRepository;
+        this.storedFileRepository = storedFileRepository;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMs = pauseMs;
+        this.graceMs = graceMs;
+    }
+
+    // ✅ Last finished pass, if any
+    public Optional<StorageReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    @Scheduled(initialDelayString = "${storage.reconcile.initial-delay-ms:600000}",
+            fixedDelayString = "${storage.reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        Pass pass = new Pass();
+        try {
+            sweepFiles(pass);
+            findDanglingReferences(pass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Storage reconciliation stopped after {} files: {}", pass.scanned, e.getMessage());
+            return;
+        }
+        lastReport = new StorageReport(pass.scanned, quarantine.size(), pass.deletedOrphans,
+                pass.deletedRenditions, pass.dangling, pass.danglingSamples, pass.startedAt, Instant.now());
+        if (pass.deletedOrphans + pass.deletedRenditions + pass.dangling > 0 || !quarantine.isEmpty()) {
+            log.info("Storage reconciled: {} files scanned, {} quarantined, {} orphans and {} renditions deleted, "
+                            + "{} dangling references", pass.scanned, quarantine.size(), pass.deletedOrphans,
+                    pass.deletedRenditions, pass.dangling);
+        }
+    }
+
+    private void sweepFiles(Pass pass) throws InterruptedException {
+        Set<String> orphans = new HashSet<>();
+        try (Stream<String> names = fileStorageService.listFiles()) {
+            Iterator<String> iterator = names.iterator();
+            List<String> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    checkChunk(chunk, orphans, pass);
+                    chunk.clear();
+                    Thread.sleep(pauseMs);
+                }
+            }
+        }
+        // Gone or referenced again since they were quarantined
+        quarantine.keySet().retainAll(orphans);
+    }
+
+    private void checkChunk(List<String> chunk, Set<String> orphans, Pass pass) {
+        pass.scanned += chunk.size();
+        List<String> originals = new ArrayList<>(chunk.size());
+        for (String name : chunk) {
+            String original = FileStorageService.originalOf(name);
+            if (original == null) {
+                originals.add(name);
+            } else if (!fileStorageService.exists(original) && fileStorageService.deleteStrayDerivative(name)) {
+                pass.deletedRenditions++;
+            }
+        }
+        if (originals.isEmpty()) {
+            return;
+        }
+
+        Set<String> referenced = new HashSet<>(bugRepository.findReferencedFilenames(originals));
+        long now = System.currentTimeMillis();
+        for (String name : originals) {
+            if (referenced.contains(name)) {
+                continue;
+            }
+            orphans.add(name);
+            Long refCount = storedFileRepository.findRefCount(name);
+            Suspect suspect = quarantine.putIfAbsent(name, new Suspect(now, refCount));
+            if (suspect == null || now - suspect.since < graceMs) {
+                continue;
+            }
+            if (!Objects.equals(suspect.refCount, refCount)) {
+                // Someone uploaded the same content meanwhile; start the grace period over
+                quarantine.put(name, new Suspect(now, refCount));
+                continue;
+            }
+            boolean deleted = fileStorageService.purgeOrphan(name, () ->
+                    Objects.equals(refCount, storedFileRepository.findRefCount(name))
+                            && bugRepository.findReferencedFilenames(List.of(name)).isEmpty());
+            if (deleted) {
+                pass.deletedOrphans++;
+                quarantine.remove(name);
+                orphans.remove(name);
+            }
+        }
+    }
+
+    private void findDanglingReferences(Pass pass) throws InterruptedException {
+        Long afterId = 0L;
+        List<Long> ids;
+        while (!(ids = bugRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize))).isEmpty()) {
+            for (AttachmentReference reference : bugRepository.findAttachmentReferencesByBugIds(ids)) {
+                if (!storedSafely(reference.getFilename())) {
+                    pass.dangling++;
+                    if (pass.danglingSamples.size() < MAX_DANGLING_SAMPLES) {
+                        pass.danglingSamples.add(new StorageReport.DanglingReference(
+                                reference.getBugId(), reference.getFilename()));
+                    }
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+            Thread.sleep(pauseMs);
+        }
+    }
+
+    // Names that were never valid (hand-edited rows) count as missing
+    private boolean storedSafely(String filename) {
+        try {
+            return filename != null && fileStorageService.exists(filename);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static final class Suspect {
+        private final long since;
+        private final Long refCount;
+
+        private Suspect(long since, Long refCount) {
+            this.since = since;
+            this.refCount = refCount;
+        }
+    }
+
+    private static final class Pass {
+        private final Instant startedAt = Instant.now();
+        private long scanned;
+        private long deletedOrphans;
+        private long deletedRenditions;
+        private long dangling;
+        private final List<StorageReport.DanglingReference> danglingSamples = new ArrayList<>();
+    }
+}
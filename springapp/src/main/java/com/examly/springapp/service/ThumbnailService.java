@@ -0,0 +1,194 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.event.FileStoredEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Downscaled renditions of image attachments ("thumb" for lists, "preview" for the detail view).
+// Rendered in the background when an image is first stored, or on the first request for one; either
+// way on the bounded thumbnailExecutor and stored beside the original, so each is rendered once.
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    // Longest edge, in pixels
+    private static final Map<String, Integer> SIZES = Map.of("thumb", 200, "preview", 1024);
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolTaskExecutor thumbnailExecutor;
+    // Renderings in progress, so concurrent first requests share one
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public ThumbnailService(FileStorageService fileStorageService,
+                            @Qualifier("thumbnailExecutor") ThreadPoolTaskExecutor thumbnailExecutor) {
+        this.fileStorageService = fileStorageService;
+        this.thumbnailExecutor = thumbnailExecutor;
+    }
+
+    public static boolean isSupportedSize(String size) {
+        return SIZES.containsKey(size);
+    }
+
+    @EventListener
+    public void onFileStored(FileStoredEvent event) {
+        if (!isImage(event.getFilename())) {
+            return;
+        }
+        for (String size : SIZES.keySet()) {
+            try {
+                render(event.getFilename(), size);
+            } catch (TaskRejectedException e) {
+                // Pool is saturated: leave it to the first request rather than queue without bound
+                return;
+            }
+        }
+    }
+
+    // ✅ Stored name of the rendition, rendering it now if needed. Empty when the file isn't a readable
+    // image or the pool is too busy, in which case callers serve the original.
+    public Optional<String> getDerivative(String filename, String size) {
+        if (!isImage(filename) || !SIZES.containsKey(size)) {
+            return Optional.empty();
+        }
+        String derivative = fileStorageService.derivativeName(filename, size);
+        if (fileStorageService.exists(derivative)) {
+            return Optional.of(derivative);
+        }
+        try {
+            return Optional.ofNullable(render(filename, size).join());
+        } catch (TaskRejectedException | CompletionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private CompletableFuture<String> render(String filename, String size) {
+        String derivative = fileStorageService.derivativeName(filename, size);
+        CompletableFuture<String> rendering = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(derivative, rendering);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            CompletableFuture.supplyAsync(
+                    () -> renderNow(filename, derivative, SIZES.get(size)),
+                    thumbnailExecutor)
+                    .whenComplete((name, error) -> {
+                        if (error != null) {
+                            rendering.completeExceptionally(error);
+                        } else {
+                            rendering.complete(name);
+                        }
+                        inFlight.remove(derivative, rendering);
+                    });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(derivative, rendering);
+            throw e;
+        }
+        return rendering;
+    }
+
+    // null when the original isn't an image ImageIO can decode
+    private String renderNow(String original, String derivative, int maxEdge) {
+        if (fileStorageService.exists(derivative)) {
+            return derivative;
+        }
+        String format = extension(original);
+        try (InputStream raw = fileStorageService.openFile(original);
+             ImageInputStream in = ImageIO.createImageInputStream(raw)) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            BufferedImage source;
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Decode only every n-th pixel of large images, so a huge screenshot never sits in heap
+                // at full resolution; the final resize below smooths the result
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (maxEdge * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            double scale = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+            boolean opaque = "jpg".equals(format) || "jpeg".equals(format);
+            BufferedImage target = new BufferedImage(width, height,
+                    opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = target.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+
+            // Written aside and handed over whole, so a half-written file is never served
+            Path temp = fileStorageService.createTempFile("render-");
+            try {
+                if (!ImageIO.write(target, format, temp.toFile())) {
+                    return null;
+                }
+                if (!fileStorageService.storeDerivative(original, derivative, temp)) {
+                    return null;
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return derivative;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not render {} of {}: {}", derivative, original, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isImage(String filename) {
+        switch (extension(filename)) {
+            case "png":
+            case "jpg":
+            case "jpeg":
+            case "gif":
+            case "bmp":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
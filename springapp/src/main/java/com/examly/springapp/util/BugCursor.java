@@ -0,0 +1,61 @@
+package com.examly.springapp.util;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset position: the sort column value and bugId of the last row a client has seen.
+// Encoded as base64url("sortBy|direction|bugId|v<value>") or "...|n" when the sort value is null.
+public final class BugCursor {
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final String lastValue;
+
+    public BugCursor(String sortBy, Sort.Direction direction, Long lastId, String lastValue) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    // Raw string form of the last sort value, converted back to the column type by the repository
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    public String encode() {
+        String raw = sortBy + "|" + direction.name() + "|" + lastId + "|"
+                + (lastValue == null ? "n" : "v" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BugCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || parts[3].isEmpty()) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String value = parts[3].charAt(0) == 'v' ? parts[3].substring(1) : null;
+            return new BugCursor(parts[0], Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]), value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
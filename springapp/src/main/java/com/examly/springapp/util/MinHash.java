@@ -0,0 +1,132 @@
+package com.examly.springapp.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// MinHash over character k-shingles, laid out for banded LSH.
+// Each signature keeps one hash key per band (for bucket lookups) and only the low 8 bits of every
+// min-hash (b-bit minwise hashing) for scoring, so a bug costs bands * 4 + hashes bytes in memory.
+public final class MinHash {
+
+    private static final int SHINGLE_LENGTH = 5;
+    // Chance that two unrelated 8-bit min-hashes agree anyway
+    private static final double BIT_COLLISION = 1.0 / 256;
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    public MinHash(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < seeds.length; i++) {
+            seed = mix(seed + i);
+            seeds[i] = seed;
+        }
+    }
+
+    public int getBands() {
+        return bands;
+    }
+
+    // null when the text has no letters or digits to compare
+    public Signature signature(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        long[] mins = new long[seeds.length];
+        Arrays.fill(mins, Long.MAX_VALUE);
+
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            int end = Math.min(start + SHINGLE_LENGTH, normalized.length());
+            for (int i = start; i < end; i++) {
+                shingle = shingle * 31 + normalized.charAt(i);
+            }
+            for (int h = 0; h < seeds.length; h++) {
+                long value = mix(shingle ^ seeds[h]);
+                if (value < mins[h]) {
+                    mins[h] = value;
+                }
+            }
+        }
+
+        int[] bandKeys = new int[bands];
+        for (int b = 0; b < bands; b++) {
+            long key = b;
+            for (int r = 0; r < rows; r++) {
+                key = mix(key ^ mins[b * rows + r]);
+            }
+            bandKeys[b] = (int) (key ^ (key >>> 32));
+        }
+        byte[] bits = new byte[mins.length];
+        for (int h = 0; h < mins.length; h++) {
+            bits[h] = (byte) mins[h];
+        }
+        return new Signature(bandKeys, bits);
+    }
+
+    // Lower-case, and collapse every run of punctuation/whitespace to one space
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int length = sb.length();
+        if (length > 0 && sb.charAt(length - 1) == ' ') {
+            sb.setLength(length - 1);
+        }
+        return sb.toString();
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static final class Signature {
+
+        private final int[] bandKeys;
+        private final byte[] bits;
+
+        private Signature(int[] bandKeys, byte[] bits) {
+            this.bandKeys = bandKeys;
+            this.bits = bits;
+        }
+
+        public int bandKey(int band) {
+            return bandKeys[band];
+        }
+
+        // Estimated Jaccard similarity of the two shingle sets, corrected for 8-bit collisions
+        public double similarity(Signature other) {
+            int equal = 0;
+            for (int i = 0; i < bits.length; i++) {
+                if (bits[i] == other.bits[i]) {
+                    equal++;
+                }
+            }
+            double raw = (double) equal / bits.length;
+            return Math.max(0, (raw - BIT_COLLISION) / (1 - BIT_COLLISION));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.examly.springapp.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-key event counter over a sliding time window (exact: keeps one timestamp per event, at most
+// limit per key). Keys whose events have all aged out are dropped by sweep().
+public final class SlidingWindowCounter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final Map<String, Deque<Long>> events = new ConcurrentHashMap<>();
+
+    public SlidingWindowCounter(int limit, long windowMillis) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    // Records an event unless the key is already at the limit; false means "throttled"
+    public boolean tryAcquire(String key) {
+        long now = System.currentTimeMillis();
+        Deque<Long> window = events.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (window) {
+            expire(window, now);
+            if (window.size() >= limit) {
+                return false;
+            }
+            window.addLast(now);
+            return true;
+        }
+    }
+
+    public void record(String key) {
+        long now = System.currentTimeMillis();
+        Deque<Long> window = events.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (window) {
+            expire(window, now);
+            if (window.size() >= limit) {
+                window.pollFirst();
+            }
+            window.addLast(now);
+        }
+    }
+
+    public boolean isLimited(String key) {
+        Deque<Long> window = events.get(key);
+        if (window == null) {
+            return false;
+        }
+        synchronized (window) {
+            expire(window, System.currentTimeMillis());
+            return window.size() >= limit;
+        }
+    }
+
+    // Seconds until the key drops below the limit again (0 if it isn't limited)
+    public long retryAfterSeconds(String key) {
+        Deque<Long> window = events.get(key);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            long now = System.currentTimeMillis();
+            expire(window, now);
+            if (window.size() < limit) {
+                return 0;
+            }
+            return Math.max(1, (window.peekFirst() + windowMillis - now + 999) / 1000);
+        }
+    }
+
+    public void reset(String key) {
+        events.remove(key);
+    }
+
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        events.entrySet().removeIf(entry -> {
+            synchronized (entry.getValue()) {
+                expire(entry.getValue(), now);
+                return entry.getValue().isEmpty();
+            }
+        });
+    }
+
+    private void expire(Deque<Long> window, long now) {
+        while (!window.isEmpty() && window.peekFirst() <= now - windowMillis) {
+            window.pollFirst();
+        }
+    }
+}
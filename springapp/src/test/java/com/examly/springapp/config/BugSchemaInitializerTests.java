@@ -0,0 +1,50 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.model.CodedEnum;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The conversion itself (information_schema, ALTER TABLE ... MODIFY) only runs on MySQL; this checks the
+// value mapping it applies to the legacy VARCHAR columns
+@JdbcTest
+public class BugSchemaInitializerTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void legacyStatusSpellingsMapToCodes() {
+        List<String> legacy = Arrays.asList("open", "Open", "In progress", "IN_PROGRESS", "in-progress",
+                "RESOLVED", "closed", "4", "reopened", "", null);
+
+        assertEquals(Arrays.asList(1, 1, 2, 2, 2, 3, 4, 4, null, null, null), convert("status", legacy, BugStatus.values()));
+    }
+
+    @Test
+    void legacyPrioritySpellingsMapToCodes() {
+        List<String> legacy = Arrays.asList("low", "Medium", "HIGH", "Critical", "urgent");
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, null), convert("priority", legacy, BugPriority.values()));
+    }
+
+    private List<Integer> convert(String column, List<String> values, CodedEnum[] constants) {
+        // DDL commits in H2, so each test starts from a fresh table
+        jdbcTemplate.execute("DROP TABLE IF EXISTS legacy_bug");
+        jdbcTemplate.execute("CREATE TABLE legacy_bug (id INT PRIMARY KEY, " + column + " VARCHAR(40))");
+        for (int i = 0; i < values.size(); i++) {
+            jdbcTemplate.update("INSERT INTO legacy_bug VALUES (?, ?)", i, values.get(i));
+        }
+        jdbcTemplate.update("UPDATE legacy_bug SET " + column + " = "
+                + BugSchemaInitializer.toCodeExpression(column, constants));
+        return jdbcTemplate.queryForList("SELECT " + column + " FROM legacy_bug ORDER BY id", Integer.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.service.CustomUserDetailsService;
+import com.examly.springapp.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JwtFilterTests {
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final JwtFilter filter = new JwtFilter(jwtUtil, userDetailsService, 100);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void signedTokenWithoutExpiryIsNotAuthenticated() throws Exception {
+        // Parses and verifies like a token signed with our key, but JwtUtil never issues one without exp
+        when(jwtUtil.extractAllClaims("forever")).thenReturn(Jwts.claims().setSubject("alice@example.com"));
+
+        MockHttpServletResponse response = send("forever");
+
+        assertEquals(200, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername("alice@example.com");
+    }
+
+    @Test
+    void validTokenIsVerifiedOnceThenServedFromTheCache() throws Exception {
+        Claims claims = Jwts.claims().setSubject("alice@example.com");
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtUtil.extractAllClaims("token")).thenReturn(claims);
+        when(userDetailsService.loadUserByUsername("alice@example.com")).thenReturn(
+                new User("alice@example.com", "hash", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        send("token");
+        assertEquals("alice@example.com", SecurityContextHolder.getContext().getAuthentication().getName());
+        SecurityContextHolder.clearContext();
+        send("token");
+
+        assertEquals("alice@example.com", SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(jwtUtil, times(1)).extractAllClaims("token");
+    }
+
+    private MockHttpServletResponse send(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bugs");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
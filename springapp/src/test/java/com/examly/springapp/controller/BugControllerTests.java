@@ -0,0 +1,213 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.repository.BugRepository;
+import com.examly.springapp.service.AttachmentDownloadService;
+import com.examly.springapp.service.BugBatchService;
+import com.examly.springapp.service.BugEventStream;
+import com.examly.springapp.service.BugExportService;
+import com.examly.springapp.service.BugSearchService;
+import com.examly.springapp.service.BugService;
+import com.examly.springapp.service.BugSimilarityService;
+import com.examly.springapp.service.BugStatsService;
+import com.examly.springapp.service.FileStorageService;
+import com.examly.springapp.service.StorageReconciler;
+import com.examly.springapp.service.ThumbnailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.handler.WebRequestHandlerInterceptorAdapter;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Conditional requests against real versions on H2; services the endpoints under test don't use are mocks
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(BugService.class)
+// Each request commits its own transaction, as it would in the application
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BugControllerTests {
+
+    @Autowired
+    private BugService bugService;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    private Long id;
+
+    @BeforeEach
+    void saveBug() {
+        Bug bug = new Bug();
+        bug.setTitle("Login fails");
+        bug.setStatus(BugStatus.OPEN);
+        bug.setPriority(BugPriority.HIGH);
+        bug.setReporter("Alice");
+        bug.setCreatedDate(LocalDate.of(2025, 1, 1));
+        id = bugRepository.save(bug).getBugId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bugRepository.deleteAll();
+    }
+
+    @Test
+    void currentETagInIfNoneMatchGets304() throws Exception {
+        MockMvc mvc = mvc(false);
+        mvc.perform(get("/bugs/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mvc.perform(get("/bugs/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+        mvc.perform(get("/bugs/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"7\", W/\"0\""))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/bugs/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Login fails"));
+    }
+
+    @Test
+    void writesAgainstAStaleVersionGet412() throws Exception {
+        MockMvc mvc = mvc(false);
+        mvc.perform(patchTitle("Renamed").header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // Version 0 is gone now
+        mvc.perform(patchTitle("Lost update").header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        // Weak tags never satisfy If-Match
+        mvc.perform(patchTitle("Lost update").header(HttpHeaders.IF_MATCH, "W/\"1\""))
+                .andExpect(status().isPreconditionFailed());
+        mvc.perform(putWithUpload("\"0\"")).andExpect(status().isPreconditionFailed());
+        mvc.perform(delete("/bugs/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Renamed", bugRepository.findById(id).orElseThrow().getTitle());
+        // The PUT was refused before its uploads were stored
+        verify(fileStorageService, never()).storeFiles(anyList());
+
+        mvc.perform(delete("/bugs/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\", \"1\""))
+                .andExpect(status().isNoContent());
+        assertFalse(bugRepository.existsById(id));
+    }
+
+    @Test
+    void writesWithoutIfMatchGet428WhenRequired() throws Exception {
+        MockMvc mvc = mvc(true);
+        mvc.perform(patchTitle("Blind write")).andExpect(status().isPreconditionRequired());
+        mvc.perform(putWithUpload(null)).andExpect(status().isPreconditionRequired());
+        mvc.perform(delete("/bugs/{id}", id)).andExpect(status().isPreconditionRequired());
+        assertEquals("Login fails", bugRepository.findById(id).orElseThrow().getTitle());
+
+        mvc.perform(patchTitle("Renamed").header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void writesWithoutIfMatchAreUnconditionalByDefault() throws Exception {
+        mvc(false).perform(patchTitle("Renamed"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void createIgnoresAttachmentNamesInTheBugPart() throws Exception {
+        MockMultipartFile bug = new MockMultipartFile("bug", "", MediaType.APPLICATION_JSON_VALUE,
+                ("{\"title\":\"Crash\",\"status\":\"OPEN\",\"priority\":\"LOW\","
+                        + "\"imageUrls\":[\"someone-elses.png\"],\"documentUrls\":[\"someone-elses.pdf\"]}")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        mvc(false).perform(multipart("/bugs").file(bug))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrls").isEmpty())
+                .andExpect(jsonPath("$.documentUrls").isEmpty());
+    }
+
+    @Test
+    void cursorsWithValuesOfTheWrongTypeGet400() throws Exception {
+        MockMvc mvc = mvc(false);
+        String first = mvc.perform(get("/bugs").param("after", "").param("sortBy", "status").param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(first.contains("Login fails"), first);
+
+        for (String raw : List.of("createdDate|DESC|5|vnot-a-date", "status|ASC|5|vNOT_A_STATUS",
+                "bugId|ASC|x|n", "createdDate|DESC")) {
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            String[] sort = raw.split("\\|");
+            mvc.perform(get("/bugs").param("after", cursor).param("sortBy", sort[0])
+                            .param("direction", sort[1].toLowerCase(Locale.ROOT)))
+                    .andExpect(status().isBadRequest());
+        }
+        mvc.perform(get("/bugs").param("after", "%%%").param("sortBy", "createdDate"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockMvc mvc(boolean requireIfMatch) {
+        BugController controller = new BugController(bugService, fileStorageService,
+                mock(BugExportService.class), mock(BugBatchService.class), mock(BugSearchService.class),
+                mock(BugSimilarityService.class), mock(BugStatsService.class), mock(AttachmentDownloadService.class),
+                mock(ThumbnailService.class), mock(StorageReconciler.class), mock(BugEventStream.class),
+                requireIfMatch);
+        // spring.jpa.open-in-view is on in the application, so lazy collections load while the body is written
+        OpenEntityManagerInViewInterceptor openInView = new OpenEntityManagerInViewInterceptor();
+        openInView.setEntityManagerFactory(entityManagerFactory);
+        return MockMvcBuilders.standaloneSetup(controller)
+                .addInterceptors(new WebRequestHandlerInterceptorAdapter(openInView))
+                .build();
+    }
+
+    private MockHttpServletRequestBuilder patchTitle(String title) {
+        return patch("/bugs/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\"}");
+    }
+
+    private MockHttpServletRequestBuilder putWithUpload(String ifMatch) {
+        MockMultipartFile bug = new MockMultipartFile("bug", "", MediaType.APPLICATION_JSON_VALUE,
+                "{\"title\":\"Replaced\",\"status\":\"OPEN\",\"priority\":\"HIGH\"}".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile image = new MockMultipartFile("images", "shot.png", MediaType.IMAGE_PNG_VALUE, new byte[] {1});
+        MockHttpServletRequestBuilder request =
+                multipart(HttpMethod.PUT, "/bugs/{id}", id).file(bug).file(image);
+        return ifMatch != null ? request.header(HttpHeaders.IF_MATCH, ifMatch) : request;
+    }
+}
@@ -0,0 +1,62 @@
+package com.examly.springapp.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodedEnumTests {
+
+    @Test
+    void fromValueAcceptsLabelNameOrCodeInAnySpelling() {
+        for (String value : new String[] {"In Progress", "IN_PROGRESS", "in-progress", " inprogress ", "2"}) {
+            assertEquals(BugStatus.IN_PROGRESS, BugStatus.fromValue(value), value);
+        }
+        assertEquals(BugPriority.CRITICAL, BugPriority.fromValue("critical"));
+        assertNull(BugStatus.fromValue(null));
+        assertNull(BugStatus.fromValue("  "));
+    }
+
+    @Test
+    void unknownValuesAndCodesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BugStatus.fromValue("Reopened"));
+        assertThrows(IllegalArgumentException.class, () -> BugStatus.fromValue("9"));
+        assertThrows(IllegalArgumentException.class, () -> BugPriority.fromCode(0));
+        assertNull(BugPriority.fromCode(null));
+    }
+
+    @Test
+    void codesAreUniqueAndFollowTheWorkflow() {
+        BugStatus[] statuses = BugStatus.values();
+        for (int i = 0; i < statuses.length; i++) {
+            assertEquals(statuses[i], BugStatus.fromCode(statuses[i].getCode()));
+            if (i > 0) {
+                assertTrue(statuses[i].getCode() > statuses[i - 1].getCode());
+            }
+        }
+        for (BugPriority priority : BugPriority.values()) {
+            assertEquals(priority, BugPriority.fromCode(priority.getCode()));
+        }
+    }
+
+    @Test
+    void converterStoresTheCode() {
+        CodedEnumConverter.StatusConverter converter = new CodedEnumConverter.StatusConverter();
+
+        assertEquals(3, converter.convertToDatabaseColumn(BugStatus.RESOLVED));
+        assertEquals(BugStatus.RESOLVED, converter.convertToEntityAttribute(3));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void jsonUsesTheLabel() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("\"In Progress\"", objectMapper.writeValueAsString(BugStatus.IN_PROGRESS));
+        assertEquals(BugStatus.IN_PROGRESS, objectMapper.readValue("\"IN_PROGRESS\"", BugStatus.class));
+        assertEquals(BugPriority.HIGH, objectMapper.readValue("\"high\"", BugPriority.class));
+        assertThrows(ValueInstantiationException.class, () -> objectMapper.readValue("\"urgent\"", BugPriority.class));
+    }
+}
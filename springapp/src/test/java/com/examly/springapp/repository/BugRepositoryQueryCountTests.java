@@ -0,0 +1,119 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.dto.BugSummary;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class BugRepositoryQueryCountTests {
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Bug> bugs = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Bug bug = new Bug();
+            bug.setTitle("Bug " + i);
+            bug.setDescription("Description " + i);
+            bug.setStatus(BugStatus.OPEN);
+            bug.setPriority(BugPriority.HIGH);
+            bug.setReporter("Alice");
+            bug.setCreatedDate(LocalDate.of(2025, 1, 1).plusDays(i));
+            bug.setImageUrls(new ArrayList<>(List.of("img-" + i + "-a.png", "img-" + i + "-b.png")));
+            bug.setDocumentUrls(new ArrayList<>(List.of("doc-" + i + ".docx")));
+            bugs.add(bug);
+        }
+        bugRepository.saveAll(bugs);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void offsetPageQueryCountDoesNotGrowWithPageSize() {
+        long small = statementsToLoad(() -> bugRepository.findAll(
+                PageRequest.of(0, 10, Sort.by("createdDate").descending())).getContent());
+        long large = statementsToLoad(() -> bugRepository.findAll(
+                PageRequest.of(0, 50, Sort.by("createdDate").descending())).getContent());
+
+        // page select + count + one batched select per attachment collection
+        assertEquals(4, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void cursorPageQueryCountDoesNotGrowWithPageSize() {
+        long small = statementsToLoad(() ->
+                bugRepository.findPageAfter(null, "createdDate", Sort.Direction.DESC, null, 10));
+        long large = statementsToLoad(() ->
+                bugRepository.findPageAfter(null, "createdDate", Sort.Direction.DESC, null, 50));
+
+        // page select + one batched select per attachment collection
+        assertEquals(3, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void summaryPageNeverTouchesAttachmentTables() {
+        entityManager.clear();
+        statistics.clear();
+
+        Specification<Bug> open = BugSpecifications.hasStatusIn(List.of(BugStatus.OPEN));
+        Page<BugSummary> page = bugRepository.findSummaries(open,
+                PageRequest.of(0, 50, Sort.by("createdDate").descending()));
+        List<BugSummary> cursorPage = bugRepository.findSummaryPageAfter(open, "createdDate",
+                Sort.Direction.DESC, null, 50);
+
+        assertEquals(50, page.getContent().size());
+        assertEquals(60, page.getTotalElements());
+        assertEquals(50, cursorPage.size());
+        // offset page + count + cursor page, and no entities were hydrated
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private long statementsToLoad(PageLoader loader) {
+        entityManager.clear();
+        statistics.clear();
+
+        // Touch both collections the way Jackson does when serializing the page
+        for (Bug bug : loader.load()) {
+            assertEquals(2, bug.getImageUrls().size());
+            assertEquals(1, bug.getDocumentUrls().size());
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private interface PageLoader {
+        List<Bug> load();
+    }
+}
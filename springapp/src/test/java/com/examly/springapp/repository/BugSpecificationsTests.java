@@ -0,0 +1,199 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.dto.BugFilter;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.service.BugService;
+import com.examly.springapp.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(BugService.class)
+public class BugSpecificationsTests {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final BugStatus[] STATUSES = BugStatus.values();
+    private static final BugPriority[] PRIORITIES = BugPriority.values();
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private BugService bugService;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    private List<Bug> bugs;
+
+    // Bug i: status i % 4, priority (i / 4) % 4, reporter alternating, created START + i, attachments on even i
+    @BeforeEach
+    void saveBugs() {
+        List<Bug> toSave = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            Bug bug = new Bug();
+            bug.setTitle("Bug " + i);
+            bug.setStatus(STATUSES[i % 4]);
+            bug.setPriority(PRIORITIES[(i / 4) % 4]);
+            bug.setReporter(i % 2 == 0 ? "alice" : "bob");
+            bug.setCreatedDate(START.plusDays(i));
+            if (i % 4 == 0) {
+                bug.setImageUrls(new ArrayList<>(List.of("img-" + i + ".png")));
+            } else if (i % 4 == 2) {
+                bug.setDocumentUrls(new ArrayList<>(List.of("doc-" + i + ".pdf")));
+            }
+            toSave.add(bug);
+        }
+        bugs = bugRepository.saveAll(toSave);
+    }
+
+    @Test
+    void emptyFilterMatchesEverything() {
+        assertNull(BugSpecifications.matching(null));
+        assertNull(BugSpecifications.matching(new BugFilter()));
+        assertEquals(24, bugService.getBugs(new BugFilter(), PageRequest.of(0, 100)).getTotalElements());
+    }
+
+    @Test
+    void filtersCombineWithAnd() {
+        BugFilter filter = new BugFilter();
+        filter.setStatuses(Set.of(BugStatus.OPEN, BugStatus.RESOLVED));
+        filter.setPriorities(Set.of(BugPriority.LOW, BugPriority.HIGH));
+        filter.setReporter("alice");
+
+        assertEquals(expected(b -> (b.getStatus() == BugStatus.OPEN || b.getStatus() == BugStatus.RESOLVED)
+                        && (b.getPriority() == BugPriority.LOW || b.getPriority() == BugPriority.HIGH)
+                        && b.getReporter().equals("alice")),
+                titles(bugRepository.findAll(BugSpecifications.matching(filter))));
+    }
+
+    @Test
+    void createdRangeIsInclusiveAndMayBeOpen() {
+        BugFilter between = new BugFilter();
+        between.setCreatedFrom(START.plusDays(3));
+        between.setCreatedTo(START.plusDays(5));
+        assertEquals(List.of("Bug 3", "Bug 4", "Bug 5"), titles(bugRepository.findAll(BugSpecifications.matching(between))));
+
+        BugFilter from = new BugFilter();
+        from.setCreatedFrom(START.plusDays(22));
+        assertEquals(List.of("Bug 22", "Bug 23"), titles(bugRepository.findAll(BugSpecifications.matching(from))));
+
+        BugFilter to = new BugFilter();
+        to.setCreatedTo(START.plusDays(1));
+        assertEquals(List.of("Bug 0", "Bug 1"), titles(bugRepository.findAll(BugSpecifications.matching(to))));
+    }
+
+    @Test
+    void hasAttachmentsLooksAtImagesAndDocuments() {
+        BugFilter with = new BugFilter();
+        with.setHasAttachments(true);
+        BugFilter without = new BugFilter();
+        without.setHasAttachments(false);
+
+        assertEquals(expected(b -> bugs.indexOf(b) % 2 == 0), titles(bugRepository.findAll(BugSpecifications.matching(with))));
+        assertEquals(expected(b -> bugs.indexOf(b) % 2 == 1), titles(bugRepository.findAll(BugSpecifications.matching(without))));
+    }
+
+    @Test
+    void onlyWhitelistedColumnsSort() {
+        assertThrows(IllegalArgumentException.class, () -> BugSpecifications.sort("title", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class, () -> BugSpecifications.sort("description", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class, () ->
+                bugService.getBugsAfter(null, null, "title", Sort.Direction.ASC, 10, false));
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "status").and(Sort.by(Sort.Direction.DESC, "bugId")),
+                BugSpecifications.sort("status", Sort.Direction.DESC));
+        assertEquals(Sort.by(Sort.Direction.ASC, "bugId"), BugSpecifications.sort("bugId", Sort.Direction.ASC));
+    }
+
+    @Test
+    void everyColumnTheBundledUiSortsByIsAccepted() throws IOException {
+        Path viewBugs = Path.of("../reactapp/src/components/ViewBugs.jsx");
+        assumeTrue(Files.exists(viewBugs), "reactapp is not checked out next to springapp");
+        List<String> uiSortKeys = new ArrayList<>();
+        Matcher handleSort = Pattern.compile("handleSort\\(\"(\\w+)\"\\)").matcher(Files.readString(viewBugs));
+        while (handleSort.find()) {
+            uiSortKeys.add(handleSort.group(1));
+        }
+
+        assertTrue(uiSortKeys.contains("reporter"), uiSortKeys.toString());
+        for (String sortBy : uiSortKeys) {
+            assertEquals(24, bugService.getBugs(new BugFilter(), PageRequest.of(0, 100,
+                    BugSpecifications.sort(sortBy, Sort.Direction.ASC))).getContent().size(), sortBy);
+            assertEquals(10, bugService.getBugsAfter(null, null, sortBy, Sort.Direction.DESC, 10, false)
+                    .getContent().size(), sortBy);
+        }
+    }
+
+    @Test
+    void offsetPagesFollowTheCodeOrderWithIdTieBreak() {
+        BugFilter filter = new BugFilter();
+        filter.setReporter("bob");
+
+        List<Bug> page = bugService.getBugs(filter, PageRequest.of(0, 100,
+                BugSpecifications.sort("priority", Sort.Direction.DESC))).getContent();
+
+        List<Bug> sorted = new ArrayList<>(page);
+        sorted.sort(Comparator.comparing((Bug b) -> b.getPriority().getCode()).reversed()
+                .thenComparing(Bug::getBugId, Comparator.reverseOrder()));
+        assertEquals(12, page.size());
+        assertEquals(sorted, page);
+    }
+
+    @Test
+    void keysetPagesByStatusVisitEveryMatchOnce() {
+        BugFilter filter = new BugFilter();
+        filter.setHasAttachments(true);
+
+        List<Bug> seen = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<Bug> page = bugService.getBugsAfter(filter, after, "status", Sort.Direction.ASC, 5, true);
+            assertEquals(12L, page.getTotalElements());
+            seen.addAll(page.getContent());
+            after = page.getNextCursor();
+        } while (after != null);
+
+        List<Bug> sorted = new ArrayList<>(seen);
+        sorted.sort(Comparator.comparing((Bug b) -> b.getStatus().getCode()).thenComparing(Bug::getBugId));
+        assertEquals(12, seen.stream().map(Bug::getBugId).distinct().count());
+        assertEquals(sorted, seen);
+    }
+
+    private List<String> expected(Predicate<Bug> matches) {
+        return bugs.stream().filter(matches).map(Bug::getTitle).collect(Collectors.toList());
+    }
+
+    // In id (= insertion) order
+    private static List<String> titles(List<Bug> found) {
+        return found.stream()
+                .sorted(Comparator.comparing(Bug::getBugId))
+                .map(Bug::getTitle)
+                .collect(Collectors.toList());
+    }
+}
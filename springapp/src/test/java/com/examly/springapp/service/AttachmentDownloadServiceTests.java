@@ -0,0 +1,213 @@
+package com.examly.springapp.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Runs against a real Tomcat: compression and sendfile are connector features a mock request can't show
+public class AttachmentDownloadServiceTests {
+
+    private static final String TEXT = "text.txt";
+    private static final String IMAGE = "a3f1c9e2b7d4058e6f1a2b3c4d5e6f708192a3b4c5d6e7f8091a2b3c4d5e6f70.png";
+
+    @TempDir
+    static Path dir;
+
+    private static WebServer server;
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static String text;
+    private static byte[] image;
+
+    @BeforeAll
+    static void start() throws IOException {
+        text = "line of a log attachment\n".repeat(400);
+        Files.writeString(dir.resolve(TEXT), text);
+        image = new byte[10_000];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) i;
+        }
+        Files.write(dir.resolve(IMAGE), image);
+
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.localPath(anyString())).thenAnswer(call -> Optional.of(dir.resolve((String) call.getArgument(0))));
+        AttachmentDownloadService downloads = new AttachmentDownloadService(fileStorageService);
+
+        // Same settings as application.properties
+        Compression compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMimeTypes(new String[] {"application/json", "application/xml", "text/plain", "text/csv",
+                "text/html", "text/xml", "text/markdown", "image/svg+xml"});
+        compression.setMinResponseSize(DataSize.ofKilobytes(2));
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.setCompression(compression);
+        server = factory.getWebServer(context -> {
+            context.addServlet("files", new HttpServlet() {
+                @Override
+                protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                    downloads.serve(request.getPathInfo().substring(1), request, response);
+                }
+            }).addMapping("/files/*");
+            context.addServlet("fallbacks", new HttpServlet() {
+                @Override
+                protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                    downloads.serveFallback(request.getPathInfo().substring(1), request, response);
+                }
+            }).addMapping("/fallbacks/*");
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop();
+    }
+
+    @Test
+    void textAttachmentsAreGzipped() throws Exception {
+        HttpResponse<byte[]> response = get(TEXT, "Accept-Encoding", "gzip");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(response.headers().firstValue("ETag").orElseThrow().startsWith("W/\""));
+        assertTrue(response.body().length < text.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertEquals(text, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void weakETagStillRevalidates() throws Exception {
+        String etag = get(TEXT).headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(304, get(TEXT, "If-None-Match", etag).statusCode());
+        assertEquals(304, get(TEXT, "If-None-Match", etag.substring(2)).statusCode());
+    }
+
+    @Test
+    void compressibleAttachmentsIgnoreRanges() throws Exception {
+        HttpResponse<byte[]> response = get(TEXT, "Range", "bytes=0-9");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("none", response.headers().firstValue("Accept-Ranges").orElse(null));
+        assertEquals(text, new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void binaryAttachmentsGoOutWholeWithAStrongETag() throws Exception {
+        HttpResponse<byte[]> response = get(IMAGE, "Accept-Encoding", "gzip");
+
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(image, response.body());
+        assertEquals("\"" + IMAGE.substring(0, 64) + "\"", response.headers().firstValue("ETag").orElse(null));
+        assertEquals("bytes", response.headers().firstValue("Accept-Ranges").orElse(null));
+        assertEquals("inline", response.headers().firstValue("Content-Disposition").orElse(null));
+        assertTrue(response.headers().firstValue("Cache-Control").orElseThrow().contains("immutable"));
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    @Test
+    void singleRangeGets206() throws Exception {
+        HttpResponse<byte[]> response = get(IMAGE, "Range", "bytes=100-199");
+        assertEquals(206, response.statusCode());
+        assertEquals("bytes 100-199/10000", response.headers().firstValue("Content-Range").orElse(null));
+        assertArrayEquals(Arrays.copyOfRange(image, 100, 200), response.body());
+
+        HttpResponse<byte[]> suffix = get(IMAGE, "Range", "bytes=-10");
+        assertEquals(206, suffix.statusCode());
+        assertEquals("bytes 9990-9999/10000", suffix.headers().firstValue("Content-Range").orElse(null));
+        assertArrayEquals(Arrays.copyOfRange(image, 9990, 10_000), suffix.body());
+
+        // Open-ended ranges are clipped to the file
+        HttpResponse<byte[]> tail = get(IMAGE, "Range", "bytes=9000-20000");
+        assertEquals("bytes 9000-9999/10000", tail.headers().firstValue("Content-Range").orElse(null));
+        assertEquals(1000, tail.body().length);
+    }
+
+    @Test
+    void unsatisfiableRangeGets416() throws Exception {
+        HttpResponse<byte[]> response = get(IMAGE, "Range", "bytes=10000-");
+
+        assertEquals(416, response.statusCode());
+        assertEquals("bytes */10000", response.headers().firstValue("Content-Range").orElse(null));
+    }
+
+    @Test
+    void staleIfRangeOrSeveralRangesGetTheWholeFile() throws Exception {
+        String etag = get(IMAGE).headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(206, get(IMAGE, "Range", "bytes=0-9", "If-Range", etag).statusCode());
+        HttpResponse<byte[]> stale = get(IMAGE, "Range", "bytes=0-9", "If-Range", "\"something-else\"");
+        assertEquals(200, stale.statusCode());
+        assertArrayEquals(image, stale.body());
+        // If-Range needs a strong match
+        assertEquals(200, get(IMAGE, "Range", "bytes=0-9", "If-Range", "W/" + etag).statusCode());
+
+        HttpResponse<byte[]> multi = get(IMAGE, "Range", "bytes=0-9,20-29");
+        assertEquals(200, multi.statusCode());
+        assertEquals(image.length, multi.body().length);
+    }
+
+    @Test
+    void matchingIfNoneMatchGets304AndMissingFiles404() throws Exception {
+        String etag = get(IMAGE).headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> notModified = get(IMAGE, "If-None-Match", etag);
+        assertEquals(304, notModified.statusCode());
+        assertEquals(0, notModified.body().length);
+        assertEquals(404, get("missing.png").statusCode());
+    }
+
+    @Test
+    void originalStandingInForARenditionIsRevalidatedNotKept() throws Exception {
+        HttpResponse<byte[]> fallback = getFallback(IMAGE);
+        assertEquals(200, fallback.statusCode());
+        assertArrayEquals(image, fallback.body());
+        assertEquals("no-cache", fallback.headers().firstValue("Cache-Control").orElse(null));
+
+        // Still cheap to revalidate while no rendition exists
+        String etag = fallback.headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, getFallback(IMAGE, "If-None-Match", etag).statusCode());
+    }
+
+    private static HttpResponse<byte[]> get(String filename, String... headers) throws Exception {
+        return send("/files/", filename, headers);
+    }
+
+    private static HttpResponse<byte[]> getFallback(String filename, String... headers) throws Exception {
+        return send("/fallbacks/", filename, headers);
+    }
+
+    private static HttpResponse<byte[]> send(String path, String filename, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path + filename));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,96 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BatchItemResult;
+import com.examly.springapp.dto.BatchResult;
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.repository.BugRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(BugBatchService.class)
+@RecordApplicationEvents
+// The service commits its own chunks
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BugBatchServiceTests {
+
+    @Autowired
+    private BugBatchService bugBatchService;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @AfterEach
+    void tearDown() {
+        bugRepository.deleteAll();
+    }
+
+    @Test
+    void itemsRetriedAfterAFailedChunkGetTheirIds() throws Exception {
+        // The middle title doesn't fit its VARCHAR(255) column, so the three-bug chunk fails as a whole
+        String ndjson = "{\"title\":\"first\"}\n"
+                + "{\"title\":\"" + "x".repeat(300) + "\"}\n"
+                + "{\"title\":\"third\"}\n";
+
+        BatchResult result = bugBatchService.ingest(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), 3);
+
+        List<BatchItemResult> items = result.getItems();
+        assertEquals(3, items.size());
+        assertNotNull(items.get(0).getBugId());
+        assertNull(items.get(1).getBugId());
+        assertNotNull(items.get(2).getBugId());
+        assertEquals(2, bugRepository.count());
+        assertTrue(bugRepository.existsById(items.get(0).getBugId()));
+        assertTrue(bugRepository.existsById(items.get(2).getBugId()));
+
+        List<Long> publishedIds = events.stream(BugChangedEvent.class)
+                .map(BugChangedEvent::getBugId)
+                .collect(Collectors.toList());
+        assertFalse(publishedIds.contains(null));
+        assertTrue(publishedIds.containsAll(List.of(items.get(0).getBugId(), items.get(2).getBugId())));
+    }
+
+    @Test
+    void itemsNamingAttachmentsAreRefused() throws Exception {
+        String json = "[{\"title\":\"first\",\"imageUrls\":[\"someone-elses.png\"]},"
+                + "{\"title\":\"second\",\"imageUrls\":[]},"
+                + "{\"title\":\"third\",\"documentUrls\":[\"someone-elses.pdf\"]}]";
+
+        BatchResult result = bugBatchService.ingest(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Refused items are reported straight away, saved ones when their chunk commits
+        List<BatchItemResult> items = result.getItems().stream()
+                .sorted(Comparator.comparingInt(BatchItemResult::getIndex))
+                .collect(Collectors.toList());
+        assertEquals(3, items.size());
+        assertNull(items.get(0).getBugId());
+        assertTrue(items.get(0).getError().contains("imageUrls"));
+        assertNotNull(items.get(1).getBugId());
+        assertNull(items.get(2).getBugId());
+        assertEquals(2, result.getFailed());
+        assertEquals(1, bugRepository.count());
+    }
+}
@@ -0,0 +1,174 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class BugEventStreamTests {
+
+    private static final int REPLAY_SIZE = 4;
+    private static final int MAX_CLIENTS = 4;
+    private static final Pattern ID = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE);
+
+    private ThreadPoolTaskExecutor executor;
+    private BugEventStream stream;
+    private MockMvc mvc;
+
+    @RestController
+    static class Events {
+        private final BugEventStream stream;
+
+        Events(BugEventStream stream) {
+            this.stream = stream;
+        }
+
+        @GetMapping("/events")
+        SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return stream.subscribe(lastEventId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        stream = new BugEventStream(objectMapper, executor, 60_000, 3000, REPLAY_SIZE, 16, MAX_CLIENTS);
+        mvc = MockMvcBuilders.standaloneSetup(new Events(stream)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void streamOpensWithRetryHintThenCarriesChanges() throws Exception {
+        MockHttpServletResponse response = open(null);
+        awaitContent(response, ":connected");
+        assertTrue(response.getContentAsString().contains("retry:3000"));
+
+        publish(1);
+        String content = awaitContent(response, "event:created");
+        assertTrue(content.contains("\"bugId\":1"), content);
+        assertTrue(content.contains("\"type\":\"created\""), content);
+        assertEquals(1, ids(content).size());
+    }
+
+    @Test
+    void reconnectReplaysOnlyWhatWasMissed() throws Exception {
+        MockHttpServletResponse first = open(null);
+        publish(1);
+        publish(2);
+        publish(3);
+        List<String> ids = awaitIds(first, 3);
+
+        String resumed = awaitIds(open(ids.get(0)), 2).toString();
+        assertEquals(List.of(ids.get(1), ids.get(2)).toString(), resumed);
+
+        // Nothing missed: nothing replayed
+        MockHttpServletResponse current = open(ids.get(2));
+        awaitContent(current, ":connected");
+        assertEquals(List.of(), ids(current.getContentAsString()));
+    }
+
+    @Test
+    void idsOlderThanTheRingOrFromAnotherRunGetAReset() throws Exception {
+        MockHttpServletResponse first = open(null);
+        for (long id = 1; id <= REPLAY_SIZE + 2; id++) {
+            publish(id);
+        }
+        List<String> ids = awaitIds(first, REPLAY_SIZE + 2);
+        String last = ids.get(ids.size() - 1);
+
+        String tooOld = awaitContent(open(ids.get(0)), "event:reset");
+        // The client re-fetches, then continues from the newest change
+        assertEquals(List.of(last), ids(tooOld));
+        assertFalse(tooOld.contains("event:created"));
+
+        String foreign = awaitContent(open("abc123-2"), "event:reset");
+        assertEquals(List.of(last), ids(foreign));
+        // Still within the ring: a plain replay
+        assertFalse(awaitContent(open(ids.get(2)), "event:created").contains("event:reset"));
+    }
+
+    @Test
+    void refusesStreamsBeyondMaxClients() throws Exception {
+        for (int i = 0; i < MAX_CLIENTS; i++) {
+            open(null);
+        }
+        assertEquals(MAX_CLIENTS, stream.getClientCount());
+        assertThrows(IllegalStateException.class, () -> stream.subscribe(null));
+    }
+
+    private MockHttpServletResponse open(String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder get = get("/events");
+        if (lastEventId != null) {
+            get.header("Last-Event-ID", lastEventId);
+        }
+        return mvc.perform(get).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private void publish(long bugId) {
+        stream.onBugChanged(BugChangedEvent.created(new BugSnapshot(bugId, "Bug " + bugId, "", BugStatus.OPEN,
+                BugPriority.LOW, "alice", LocalDate.of(2025, 1, 1))));
+    }
+
+    // Frames are written from the stream's pool, so wait for them
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), "no " + expected + " in " + content);
+        return content;
+    }
+
+    private static List<String> awaitIds(MockHttpServletResponse response, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String> ids = ids(response.getContentAsString());
+        while (ids.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            ids = ids(response.getContentAsString());
+        }
+        assertEquals(count, ids.size(), response.getContentAsString());
+        return ids;
+    }
+
+    private static List<String> ids(String content) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(content);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,206 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.model.NotificationOutbox;
+import com.examly.springapp.repository.NotificationOutboxRepository;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.mail.Message;
+import javax.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "notifications.recipients=team@example.com",
+        "notifications.max-attempts=3",
+        "notifications.retry-base-ms=300",
+        // dispatch() is called by the tests, not the scheduler
+        "notifications.window-ms=3600000"})
+@Import({BugNotificationService.class, BugNotificationServiceTests.Mail.class})
+// Outbox rows are written and read back in their own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BugNotificationServiceTests {
+
+    private static final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+
+    @TestConfiguration
+    static class Mail {
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost(ServerSetupTest.SMTP.getBindAddress());
+            sender.setPort(ServerSetupTest.SMTP.getPort());
+            return sender;
+        }
+    }
+
+    @Autowired
+    private BugNotificationService notificationService;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @SpyBean
+    private JavaMailSender mailSender;
+
+    @BeforeAll
+    static void startMailServer() {
+        greenMail.start();
+    }
+
+    @AfterAll
+    static void stopMailServer() {
+        greenMail.stop();
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        outboxRepository.deleteAll();
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @Test
+    void changesInOneWindowGoOutAsOneDigestPerRecipient() throws Exception {
+        notificationService.onBugChanged(BugChangedEvent.created(bug(1L, "Login fails", BugStatus.OPEN, "alice@example.com")));
+        notificationService.onBugChanged(BugChangedEvent.created(bug(2L, "Slow search", BugStatus.OPEN, "bob")));
+        notificationService.onBugChanged(BugChangedEvent.updated(
+                bug(1L, "Login fails", BugStatus.OPEN, "alice@example.com"),
+                bug(1L, "Login fails", BugStatus.RESOLVED, "alice@example.com")));
+        // Priority-only changes aren't mailed
+        notificationService.onBugChanged(BugChangedEvent.updated(
+                bug(2L, "Slow search", BugStatus.OPEN, "bob"),
+                bug(2L, "Slow search", BugStatus.OPEN, "bob").withStatusAndPriority(null, BugPriority.HIGH)));
+
+        notificationService.dispatch();
+
+        Map<String, MimeMessage> byRecipient = received();
+        assertEquals(2, byRecipient.size());
+
+        MimeMessage team = byRecipient.get("team@example.com");
+        assertEquals("[Bugs] 3 bug updates", team.getSubject());
+        assertEquals(List.of(
+                "#1 opened: Login fails [Open, Medium] by alice@example.com",
+                "#2 opened: Slow search [Open, Medium] by bob",
+                "#1 Login fails: Open -> Resolved"), lines(team));
+
+        MimeMessage alice = byRecipient.get("alice@example.com");
+        assertEquals("[Bugs] 2 bug updates", alice.getSubject());
+        assertEquals(2, lines(alice).size());
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void failedDigestIsRetriedAfterItsBackoff() throws Exception {
+        doThrow(new MailSendException("connection refused")).doCallRealMethod()
+                .when(mailSender).send(any(SimpleMailMessage.class));
+        notificationService.onBugChanged(BugChangedEvent.created(bug(3L, "Crash on save", BugStatus.OPEN, "carol")));
+
+        notificationService.dispatch();
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        NotificationOutbox row = outboxRepository.findAll().get(0);
+        assertEquals(1, row.getAttempts());
+        assertTrue(row.getNextAttemptAt().isAfter(Instant.now()));
+
+        // Still backing off
+        notificationService.dispatch();
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        Thread.sleep(400);
+        notificationService.dispatch();
+        assertEquals(List.of("team@example.com"), List.copyOf(received().keySet()));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void oneFailingRecipientDoesNotHoldUpTheOthers() throws Exception {
+        // Not a MailException: whatever goes wrong, only this recipient's digest waits for a retry
+        doThrow(new IllegalStateException("boom")).doCallRealMethod()
+                .when(mailSender).send(argThat((SimpleMailMessage mail) -> mail.getTo()[0].equals("dave@example.com")));
+        notificationService.onBugChanged(BugChangedEvent.created(bug(4L, "Broken link", BugStatus.OPEN, "dave@example.com")));
+
+        notificationService.dispatch();
+        assertEquals(List.of("team@example.com"), List.copyOf(received().keySet()));
+        NotificationOutbox row = outboxRepository.findAll().get(0);
+        assertEquals("dave@example.com", row.getRecipient());
+        assertEquals(1, row.getAttempts());
+
+        Thread.sleep(400);
+        notificationService.dispatch();
+        assertTrue(received().containsKey("dave@example.com"));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsWithGrowingBackoff() throws Exception {
+        doThrow(new MailSendException("mailbox unavailable")).when(mailSender).send(any(SimpleMailMessage.class));
+        notificationService.onBugChanged(BugChangedEvent.created(bug(5L, "Typo", BugStatus.OPEN, "erin")));
+
+        notificationService.dispatch();
+        Instant firstRetry = outboxRepository.findAll().get(0).getNextAttemptAt();
+        Thread.sleep(400);
+        notificationService.dispatch();
+        NotificationOutbox row = outboxRepository.findAll().get(0);
+        assertEquals(2, row.getAttempts());
+        // 300 ms, then 600 ms
+        assertTrue(row.getNextAttemptAt().isAfter(firstRetry.plusMillis(500)));
+
+        Thread.sleep(700);
+        notificationService.dispatch();
+        row = outboxRepository.findAll().get(0);
+        assertEquals(3, row.getAttempts());
+        assertTrue(row.isFailed());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    private static BugSnapshot bug(Long id, String title, BugStatus status, String reporter) {
+        return new BugSnapshot(id, title, "", status, BugPriority.MEDIUM, reporter, LocalDate.now());
+    }
+
+    private static Map<String, MimeMessage> received() throws Exception {
+        Map<String, MimeMessage> byRecipient = new LinkedHashMap<>();
+        for (MimeMessage message : greenMail.getReceivedMessages()) {
+            String to = message.getRecipients(Message.RecipientType.TO)[0].toString();
+            assertNull(byRecipient.put(to, message), "more than one digest for " + to);
+        }
+        return byRecipient;
+    }
+
+    private static List<String> lines(MimeMessage message) {
+        return Arrays.stream(GreenMailUtil.getBody(message).split("\\r?\\n"))
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
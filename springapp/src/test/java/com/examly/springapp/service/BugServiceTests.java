@@ -0,0 +1,170 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BugFilter;
+import com.examly.springapp.dto.BulkResult;
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.repository.BugRepository;
+import com.examly.springapp.repository.BugSpecifications;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(BugService.class)
+@RecordApplicationEvents
+// Bulk operations commit chunk by chunk
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BugServiceTests {
+
+    @Autowired
+    private BugService bugService;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        bugRepository.deleteAll();
+    }
+
+    @Test
+    void filteredBulkUpdateWalksTheMatchesInChunks() {
+        // More matches than one chunk (1000) holds
+        saveBugs(2500, i -> i % 2 == 0 ? BugStatus.OPEN : BugStatus.CLOSED);
+        BugFilter filter = new BugFilter();
+        filter.setStatus(BugStatus.OPEN);
+
+        BulkResult result = bugService.bulkUpdate(null, filter, BugStatus.IN_PROGRESS, BugPriority.LOW);
+
+        assertEquals(1250, result.getMatched());
+        assertEquals(1250, result.getAffected());
+        assertEquals(0, bugRepository.count(BugSpecifications.hasStatusIn(Set.of(BugStatus.OPEN))));
+        assertEquals(1250, bugRepository.count(BugSpecifications.hasStatusIn(Set.of(BugStatus.IN_PROGRESS))));
+        assertEquals(1250, events.stream(BugChangedEvent.class).count());
+    }
+
+    @Test
+    void filteredBulkDeleteRemovesEveryMatch() {
+        saveBugs(2100, i -> i < 2050 ? BugStatus.RESOLVED : BugStatus.OPEN);
+        BugFilter filter = new BugFilter();
+        filter.setStatus(BugStatus.RESOLVED);
+
+        BulkResult result = bugService.bulkDelete(null, filter);
+
+        assertEquals(2050, result.getMatched());
+        assertEquals(2050, result.getAffected());
+        assertEquals(50, bugRepository.count());
+    }
+
+    @Test
+    void mergePatchRefusesAttachmentLists() throws Exception {
+        saveBugs(1, i -> BugStatus.OPEN);
+        Bug bug = bugRepository.findAll().get(0);
+
+        for (String field : List.of("imageUrls", "documentUrls")) {
+            JsonNode patch = objectMapper.readTree("{\"title\":\"Renamed\",\"" + field + "\":[\"someone-elses.png\"]}");
+            assertThrows(IllegalArgumentException.class, () -> bugService.patchBug(bug.getBugId(), patch, null));
+        }
+
+        Bug unchanged = bugService.getBugById(bug.getBugId()).orElseThrow();
+        assertEquals("Bug 0", unchanged.getTitle());
+        assertEquals(List.of("img-0.png"), unchanged.getImageUrls());
+
+        JsonNode patch = objectMapper.readTree("{\"title\":\"Renamed\"}");
+        assertEquals("Renamed", bugService.patchBug(bug.getBugId(), patch, null).orElseThrow().getTitle());
+    }
+
+    @Test
+    void deleteReleasesAttachmentsOnlyForTheDeleteThatRemovedTheRow() {
+        saveBugs(1, i -> BugStatus.OPEN);
+        Long id = bugRepository.findAll().get(0).getBugId();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> bugService.deleteBug(id, List.of(7L)));
+        verify(fileStorageService, never()).deleteFiles(anyCollection());
+
+        assertTrue(bugService.deleteBug(id, null));
+        // A repeated (or overlapping) delete finds nothing and must not release the files again
+        assertFalse(bugService.deleteBug(id, null));
+        verify(fileStorageService, times(1)).deleteFiles(List.of("img-0.png"));
+        assertFalse(bugRepository.existsById(id));
+    }
+
+    @Test
+    void attachmentChangesShowInTheEventSnapshots() {
+        saveBugs(1, i -> BugStatus.OPEN);
+        Long id = bugRepository.findAll().get(0).getBugId();
+
+        assertTrue(bugService.removeAttachment(id, "img-0.png", "image"));
+        BugChangedEvent removed = events.stream(BugChangedEvent.class).reduce((a, b) -> b).orElseThrow();
+        assertEquals(1, removed.getBefore().getImageCount());
+        assertEquals(0, removed.getAfter().getImageCount());
+
+        saveBugs(1, i -> BugStatus.OPEN);
+        Long other = bugRepository.findAll().stream().map(Bug::getBugId).filter(b -> !b.equals(id)).findFirst().orElseThrow();
+        bugService.bulkUpdate(List.of(id, other), null, BugStatus.CLOSED, null);
+        assertEquals(List.of(0, 1), events.stream(BugChangedEvent.class)
+                .filter(e -> e.getAfter() != null && e.getAfter().getStatus() == BugStatus.CLOSED)
+                .sorted(Comparator.comparing(BugChangedEvent::getBugId))
+                .map(e -> e.getAfter().getImageCount())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void bulkOperationsNeedIdsOrAFilter() {
+        assertThrows(IllegalArgumentException.class, () -> bugService.bulkDelete(List.of(), new BugFilter()));
+        assertThrows(IllegalArgumentException.class, () -> bugService.bulkUpdate(List.of(1L), null, null, null));
+    }
+
+    private void saveBugs(int count, StatusOf statusOf) {
+        List<Bug> bugs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Bug bug = new Bug();
+            bug.setTitle("Bug " + i);
+            bug.setStatus(statusOf.of(i));
+            bug.setPriority(BugPriority.HIGH);
+            bug.setReporter("Alice");
+            bug.setCreatedDate(LocalDate.of(2025, 1, 1));
+            bug.setImageUrls(new ArrayList<>(List.of("img-" + i + ".png")));
+            bugs.add(bug);
+        }
+        bugRepository.saveAll(bugs);
+    }
+
+    private interface StatusOf {
+        BugStatus of(int index);
+    }
+}
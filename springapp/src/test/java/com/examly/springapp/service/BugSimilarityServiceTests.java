@@ -0,0 +1,94 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.SimilarBug;
+import com.examly.springapp.event.BugChangedEvent;
+import com.examly.springapp.event.BugSnapshot;
+import com.examly.springapp.model.Bug;
+import com.examly.springapp.model.BugPriority;
+import com.examly.springapp.model.BugStatus;
+import com.examly.springapp.repository.BugRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(BugSimilarityService.class)
+public class BugSimilarityServiceTests {
+
+    private static final String LOGIN = "Login button does nothing on Safari";
+    private static final String LOGIN_DETAIL = "Clicking it with a saved password in the keychain has no effect";
+
+    @Autowired
+    private BugSimilarityService similarityService;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Test
+    void findsNearDuplicatesBestFirst() {
+        Bug exact = index(LOGIN, LOGIN_DETAIL);
+        Bug reworded = index("Login button does nothing in Safari", "Clicking it with a saved password in the keychain does nothing");
+        index("CSV export drops the priority column", "Closed bugs lose their priority in the export");
+
+        List<SimilarBug> similar = similarityService.findSimilar(null, LOGIN, LOGIN_DETAIL);
+
+        assertEquals(List.of(exact.getBugId(), reworded.getBugId()), ids(similar));
+        assertEquals(1.0, similar.get(0).getSimilarity());
+        assertTrue(similar.get(1).getSimilarity() >= 0.5);
+        assertEquals(LOGIN, similar.get(0).getTitle());
+    }
+
+    @Test
+    void leavesOutTheBugItselfAndDeletedBugs() {
+        Bug first = index(LOGIN, LOGIN_DETAIL);
+        Bug second = index(LOGIN, LOGIN_DETAIL);
+
+        assertEquals(List.of(second.getBugId()), ids(similarityService.findSimilar(first.getBugId(), LOGIN, LOGIN_DETAIL)));
+
+        similarityService.onBugChanged(BugChangedEvent.deleted(BugSnapshot.of(second)));
+        assertEquals(List.of(), similarityService.findSimilar(first.getBugId(), LOGIN, LOGIN_DETAIL));
+    }
+
+    @Test
+    void followsEditsOfIndexedBugs() {
+        Bug bug = index(LOGIN, LOGIN_DETAIL);
+        BugSnapshot before = BugSnapshot.of(bug);
+        bug.setTitle("Dark mode ignores the system setting");
+        bug.setDescription("The theme stays light after switching the OS to dark");
+        bugRepository.save(bug);
+        similarityService.onBugChanged(BugChangedEvent.updated(before, BugSnapshot.of(bug)));
+
+        assertEquals(List.of(), similarityService.findSimilar(null, LOGIN, LOGIN_DETAIL));
+        assertEquals(List.of(bug.getBugId()), ids(similarityService.findSimilar(null,
+                "Dark mode ignores the system setting", "The theme stays light after switching the OS to dark")));
+    }
+
+    @Test
+    void textWithoutWordsMatchesNothing() {
+        index(LOGIN, LOGIN_DETAIL);
+        assertEquals(List.of(), similarityService.findSimilar(null, "???", null));
+    }
+
+    private Bug index(String title, String description) {
+        Bug bug = new Bug();
+        bug.setTitle(title);
+        bug.setDescription(description);
+        bug.setStatus(BugStatus.OPEN);
+        bug.setPriority(BugPriority.MEDIUM);
+        bug.setCreatedDate(LocalDate.of(2025, 1, 1));
+        Bug saved = bugRepository.save(bug);
+        similarityService.onBugChanged(BugChangedEvent.created(BugSnapshot.of(saved)));
+        return saved;
+    }
+
+    private static List<Long> ids(List<SimilarBug> similar) {
+        return similar.stream().map(SimilarBug::getBugId).collect(Collectors.toList());
+    }
+}
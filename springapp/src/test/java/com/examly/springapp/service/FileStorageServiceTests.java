@@ -0,0 +1,176 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.config.AsyncConfig;
+import com.examly.springapp.model.StoredFile;
+import com.examly.springapp.repository.StoredFileRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // addReference is a MySQL upsert (INSERT ... ON DUPLICATE KEY UPDATE)
+        "spring.datasource.url=jdbc:h2:mem:files;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "storage.local.migration.on-startup=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FileStorageService.class, LocalStorageBackend.class, AsyncConfig.class})
+// Reference counts change in their own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class FileStorageServiceTests {
+
+    private static final Path root = createRoot();
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @DynamicPropertySource
+    static void storageRoot(DynamicPropertyRegistry registry) {
+        registry.add("storage.local.root", root::toString);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        storedFileRepository.deleteAll();
+        try (Stream<String> names = fileStorageService.listFiles()) {
+            names.forEach(name -> fileStorageService.purgeOrphan(name, () -> true));
+        }
+    }
+
+    @AfterAll
+    static void deleteRoot() throws IOException {
+        FileSystemUtils.deleteRecursively(root);
+    }
+
+    @Test
+    void sameContentIsStoredOnceAndCounted() {
+        String first = fileStorageService.storeFile(upload("screenshot.PNG", "pixels"));
+        String second = fileStorageService.storeFile(upload("copy of screenshot.png", "pixels"));
+        String other = fileStorageService.storeFile(upload("screenshot.png", "other pixels"));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertTrue(first.matches("[0-9a-f]{64}\\.png"), first);
+        assertEquals(2L, storedFileRepository.findRefCount(first));
+        assertEquals(1L, storedFileRepository.findRefCount(other));
+        assertEquals(6L, storedFileRepository.findById(first).map(StoredFile::getSize).orElseThrow());
+        try (Stream<String> names = fileStorageService.listFiles()) {
+            assertEquals(2, names.count());
+        }
+    }
+
+    @Test
+    void blobGoesWithItsLastReference() throws IOException {
+        String name = fileStorageService.storeFile(upload("log.txt", "stack trace"));
+        fileStorageService.storeFile(upload("log.txt", "stack trace"));
+        Path thumb = fileStorageService.createTempFile("thumb-");
+        assertTrue(fileStorageService.storeDerivative(name, fileStorageService.derivativeName(name, "thumb"), thumb));
+
+        assertFalse(fileStorageService.deleteFile(name));
+        assertTrue(fileStorageService.exists(name));
+        assertEquals(1L, storedFileRepository.findRefCount(name));
+
+        assertTrue(fileStorageService.deleteFile(name));
+        assertFalse(fileStorageService.exists(name));
+        assertFalse(fileStorageService.exists(fileStorageService.derivativeName(name, "thumb")));
+        assertFalse(storedFileRepository.existsById(name));
+    }
+
+    @Test
+    void uncountedFilesFromBeforeHashingAreDeletedDirectly() throws IOException {
+        String legacy = "0b5c3a8e-7f2d-4c1a-9e6b-2d4f8a1c3e5b.png";
+        Files.writeString(root.resolve(legacy), "old upload");
+
+        assertTrue(fileStorageService.exists(legacy));
+        assertTrue(fileStorageService.deleteFile(legacy));
+        assertFalse(fileStorageService.exists(legacy));
+    }
+
+    @Test
+    void namesOutsideTheStoreAreRefused() {
+        assertThrows(RuntimeException.class, () -> fileStorageService.deleteFile("../application.properties"));
+        assertThrows(RuntimeException.class, () -> fileStorageService.exists(".incoming"));
+        assertThrows(RuntimeException.class, () -> fileStorageService.storeFile(upload("empty.txt", "")));
+    }
+
+    @Test
+    void storeFilesReturnsNamesInInputOrder() {
+        List<MultipartFile> uploads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            uploads.add(upload("file" + i + ".txt", "content " + i));
+        }
+
+        List<String> stored = fileStorageService.storeFiles(uploads);
+
+        assertEquals(20, stored.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(fileStorageService.storeFile(uploads.get(i)), stored.get(i));
+        }
+    }
+
+    @Test
+    void storeFilesKeepsNothingWhenOneUploadFails() {
+        // Already attached elsewhere: the failed batch must give back only its own reference
+        String shared = fileStorageService.storeFile(upload("shared.txt", "shared"));
+
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> fileStorageService.storeFiles(List.of(
+                upload("a.txt", "a"), upload("shared.txt", "shared"), failingUpload(), upload("b.txt", "b"))));
+
+        assertEquals("Failed to store file", failure.getMessage());
+        try (Stream<String> names = fileStorageService.listFiles()) {
+            assertEquals(List.of(shared), names.collect(Collectors.toList()));
+        }
+        assertEquals(1L, storedFileRepository.findRefCount(shared));
+        assertEquals(1, storedFileRepository.count());
+    }
+
+    private static MockMultipartFile upload(String name, String content) {
+        return new MockMultipartFile("images", name, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The client went away halfway through the upload
+    private static MockMultipartFile failingUpload() {
+        return new MockMultipartFile("documents", "broken.pdf", "application/pdf", new byte[] {1}) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+    }
+
+    private static Path createRoot() {
+        try {
+            return Files.createTempDirectory("file-storage-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.examly.springapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThrottleTests {
+
+    @Test
+    void failuresLockTheAccountUntilTheWindowPasses() throws InterruptedException {
+        LoginThrottle throttle = new LoginThrottle(100, 60, 3, 1);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.acquire("alice@example.com", "10.0.0." + i));
+            throttle.onFailure("alice@example.com");
+        }
+
+        // Locked from any address, whatever the spelling of the e-mail
+        assertEquals(1, throttle.acquire(" Alice@Example.COM ", "10.0.0.99"));
+        assertEquals(0, throttle.acquire("bob@example.com", "10.0.0.99"));
+
+        Thread.sleep(1100);
+        assertEquals(0, throttle.acquire("alice@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void successClearsTheAccountsFailures() {
+        LoginThrottle throttle = new LoginThrottle(100, 60, 3, 900);
+        throttle.onFailure("alice@example.com");
+        throttle.onFailure("alice@example.com");
+        throttle.onSuccess("alice@example.com");
+        throttle.onFailure("alice@example.com");
+        throttle.onFailure("alice@example.com");
+
+        assertEquals(0, throttle.acquire("alice@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void everyAttemptCountsAgainstTheClientIp() {
+        LoginThrottle throttle = new LoginThrottle(5, 60, 3, 900);
+        for (int i = 0; i < 5; i++) {
+            // Different accounts, no failures recorded: only the IP limit applies
+            assertEquals(0, throttle.acquire("user" + i + "@example.com", "10.0.0.1"));
+        }
+
+        long retryAfter = throttle.acquire("user9@example.com", "10.0.0.1");
+        assertTrue(retryAfter > 0 && retryAfter <= 60, "retry after " + retryAfter);
+        assertEquals(0, throttle.acquire("user9@example.com", "10.0.0.2"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.examly.springapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashTests {
+
+    private final MinHash minHash = new MinHash(16, 4);
+
+    @Test
+    void sameTextUpToCaseAndPunctuationHasTheSameSignature() {
+        MinHash.Signature a = minHash.signature("Login button does nothing on Safari");
+        MinHash.Signature b = minHash.signature("  login button -- does nothing, on SAFARI!");
+
+        assertEquals(1.0, a.similarity(b));
+        for (int band = 0; band < minHash.getBands(); band++) {
+            assertEquals(a.bandKey(band), b.bandKey(band));
+        }
+    }
+
+    @Test
+    void nearDuplicatesScoreHighAndUnrelatedTextLow() {
+        MinHash.Signature original = minHash.signature(
+                "Login button does nothing on Safari when the password is saved in the keychain");
+        MinHash.Signature reworded = minHash.signature(
+                "Login button does nothing on Safari if the password is saved in the keychain");
+        MinHash.Signature unrelated = minHash.signature(
+                "CSV export drops the priority column for closed bugs");
+
+        double near = original.similarity(reworded);
+        double far = original.similarity(unrelated);
+        assertTrue(near > 0.6, "near-duplicate scored " + near);
+        assertTrue(far < 0.2, "unrelated text scored " + far);
+        assertTrue(sharesABand(original, reworded));
+    }
+
+    @Test
+    void textWithoutLettersOrDigitsHasNoSignature() {
+        assertNull(minHash.signature(null));
+        assertNull(minHash.signature(" ?! -- "));
+        assertNotNull(minHash.signature("a"));
+    }
+
+    @Test
+    void bandsAndRowsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHash(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new MinHash(16, 0));
+    }
+
+    private boolean sharesABand(MinHash.Signature a, MinHash.Signature b) {
+        for (int band = 0; band < minHash.getBands(); band++) {
+            if (a.bandKey(band) == b.bandKey(band)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.examly.springapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowCounterTests {
+
+    @Test
+    void refusesOnceTheWindowIsFullAndRecoversAsEventsAgeOut() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3, 300);
+
+        assertTrue(counter.tryAcquire("a"));
+        assertTrue(counter.tryAcquire("a"));
+        assertTrue(counter.tryAcquire("a"));
+        assertFalse(counter.tryAcquire("a"));
+        assertTrue(counter.isLimited("a"));
+        assertEquals(1, counter.retryAfterSeconds("a"));
+        // Keys are counted separately
+        assertTrue(counter.tryAcquire("b"));
+
+        Thread.sleep(350);
+        assertFalse(counter.isLimited("a"));
+        assertEquals(0, counter.retryAfterSeconds("a"));
+        assertTrue(counter.tryAcquire("a"));
+    }
+
+    @Test
+    void recordKeepsAtMostLimitEvents() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(2, 60_000);
+        for (int i = 0; i < 10; i++) {
+            counter.record("a");
+        }
+        assertTrue(counter.isLimited("a"));
+
+        counter.reset("a");
+        assertFalse(counter.isLimited("a"));
+    }
+
+    @Test
+    void sweepDropsOnlyExpiredKeys() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1, 200);
+        counter.record("old");
+        Thread.sleep(250);
+        counter.record("new");
+
+        counter.sweep();
+
+        assertFalse(counter.isLimited("old"));
+        assertTrue(counter.isLimited("new"));
+    }
+}